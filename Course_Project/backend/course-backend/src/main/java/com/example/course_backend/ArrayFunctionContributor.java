@@ -0,0 +1,21 @@
+package com.example.course_backend;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+// Registers text_array_overlaps(column, 'A,B') for JPQL/Criteria. It renders the Postgres
+// && operator, which the GIN indexes on the facet arrays can serve (a function call such
+// as arrayoverlap() could not). Registered in META-INF/services.
+public class ArrayFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder("text_array_overlaps", "(?1 && string_to_array(?2, ','))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
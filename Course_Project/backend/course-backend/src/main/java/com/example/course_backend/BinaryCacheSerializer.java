@@ -0,0 +1,381 @@
+package com.example.course_backend;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.hibernate.Hibernate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Hand-written binary format for cache values. Course, Unit, CourseIdPage and CacheEntry
+// are written field by field (varints, UTF-8 strings, enums as ordinals) instead of
+// JSON with class names, which is several times smaller and cheaper to decode.
+// Anything else is handed to the fallback serializer and stored as-is.
+//
+// Layout: one header byte (FORMAT_PLAIN / FORMAT_LZ4), then the tagged value. LZ4 is
+// only used when the plain encoding reaches the compression threshold; the compressed
+// form stores the plain length right after the header.
+//
+// Enum ordinals are part of the format: reordering Board/Medium/Subject/Grade, or any
+// other change to the layout, needs a new FORMAT_* value or tag so old entries fail to read
+// (TwoLevelCache then drops them as misses) rather than being silently reinterpreted.
+public class BinaryCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT_PLAIN = 0x11;
+    static final byte FORMAT_LZ4 = 0x12;
+
+    private static final byte NULL = 0;
+    private static final byte CACHE_ENTRY = 1;
+    // 2 and 3 were Course and Unit before they had a version
+    // 4 was the page of whole courses that coursesList held before it cached ids
+    private static final byte LIST = 5;
+    private static final byte INT_ARRAY = 6;
+    private static final byte COURSE_ID_PAGE = 7;
+    private static final byte COURSE = 8;
+    private static final byte UNIT = 9;
+    private static final byte FALLBACK = 127;
+
+    private static final Board[] BOARDS = Board.values();
+    private static final Medium[] MEDIUMS = Medium.values();
+    private static final Subject[] SUBJECTS = Subject.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    // compressionThreshold <= 0 disables compression.
+    public BinaryCacheSerializer(RedisSerializer<Object> fallback, int compressionThreshold) {
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.safeDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) return new byte[0];
+        Out out = new Out(256);
+        out.write(FORMAT_PLAIN);
+        writeValue(out, value);
+
+        int plainLength = out.size() - 1;
+        if (compressionThreshold <= 0 || plainLength < compressionThreshold) return out.toByteArray();
+
+        byte[] plain = out.buffer();
+        byte[] compressed = new byte[1 + 5 + compressor.maxCompressedLength(plainLength)];
+        compressed[0] = FORMAT_LZ4;
+        int offset = writeVarInt(compressed, 1, plainLength);
+        int length = compressor.compress(plain, 1, plainLength, compressed, offset);
+        // incompressible payloads stay plain, there is no point paying for the decompression
+        if (offset + length >= out.size()) return out.toByteArray();
+        return Arrays.copyOf(compressed, offset + length);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        try {
+            In in;
+            if (bytes[0] == FORMAT_PLAIN) {
+                in = new In(bytes, 1);
+            } else if (bytes[0] == FORMAT_LZ4) {
+                In header = new In(bytes, 1);
+                int plainLength = header.readVarInt();
+                byte[] plain = new byte[plainLength];
+                int read = decompressor.decompress(bytes, header.position, bytes.length - header.position, plain, 0);
+                if (read != plainLength) throw new SerializationException("Truncated compressed cache value");
+                in = new In(plain, 0);
+            } else {
+                throw new SerializationException("Unknown cache value format: " + bytes[0]);
+            }
+            return readValue(in);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+
+    private void writeValue(Out out, Object value) {
+        if (value == null) {
+            out.write(NULL);
+        } else if (value instanceof CacheEntry entry) {
+            out.write(CACHE_ENTRY);
+            out.writeLong(entry.staleAfterMillis());
+            writeValue(out, entry.value());
+        } else if (value instanceof Course course) {
+            out.write(COURSE);
+            writeCourse(out, course);
+        } else if (value instanceof Unit unit) {
+            out.write(UNIT);
+            writeUnit(out, unit);
+        } else if (value instanceof CourseIdPage page) {
+            out.write(COURSE_ID_PAGE);
+            out.writeVarLong(page.totalElements());
+            writeInts(out, page.ids());
+        } else if (value instanceof int[] ints) {
+            out.write(INT_ARRAY);
+            writeInts(out, ints);
+        } else if (value instanceof List<?> list) {
+            out.write(LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) writeValue(out, element);
+        } else {
+            byte[] bytes = fallback.serialize(value);
+            out.write(FALLBACK);
+            out.writeVarInt(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private Object readValue(In in) {
+        byte tag = in.read();
+        switch (tag) {
+            case NULL:
+                return null;
+            case CACHE_ENTRY: {
+                long staleAfter = in.readLong();
+                return new CacheEntry(readValue(in), staleAfter);
+            }
+            case COURSE:
+                return readCourse(in);
+            case UNIT:
+                return readUnit(in, null);
+            case COURSE_ID_PAGE: {
+                long total = in.readVarLong();
+                return new CourseIdPage(readInts(in), total);
+            }
+            case INT_ARRAY:
+                return readInts(in);
+            case LIST: {
+                int size = in.readVarInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(readValue(in));
+                return list;
+            }
+            case FALLBACK: {
+                int length = in.readVarInt();
+                return fallback.deserialize(in.readBytes(length));
+            }
+            default:
+                throw new SerializationException("Unknown cache value tag: " + tag);
+        }
+    }
+
+    private static void writeInts(Out out, int[] ints) {
+        out.writeVarInt(ints.length);
+        for (int i : ints) out.writeVarInt(i);
+    }
+
+    private static int[] readInts(In in) {
+        int[] ints = new int[in.readVarInt()];
+        for (int i = 0; i < ints.length; i++) ints[i] = in.readVarInt();
+        return ints;
+    }
+
+    private static void writeCourse(Out out, Course course) {
+        out.writeNullableInt(course.getId());
+        out.writeNullableInt(course.getVersion());
+        out.writeString(course.getName());
+        out.writeString(course.getDescription());
+        out.writeNullableEnum(course.getBoard());
+        writeEnums(out, course.getSubject());
+        writeEnums(out, course.getMedium());
+        writeEnums(out, course.getGrade());
+        // same rule as the JSON cache: a lazy collection nobody loaded is stored as absent
+        List<Unit> units = course.getUnits();
+        if (units == null || !Hibernate.isInitialized(units)) {
+            out.writeVarInt(0);
+        } else {
+            out.writeVarInt(units.size() + 1);
+            for (Unit unit : units) writeUnit(out, unit);
+        }
+    }
+
+    private static Course readCourse(In in) {
+        Course course = new Course();
+        course.setId(in.readNullableInt());
+        course.setVersion(in.readNullableInt());
+        course.setName(in.readString());
+        course.setDescription(in.readString());
+        course.setBoard(in.readNullableEnum(BOARDS));
+        course.setSubject(readEnums(in, SUBJECTS));
+        course.setMedium(readEnums(in, MEDIUMS));
+        course.setGrade(readEnums(in, GRADES));
+        int units = in.readVarInt() - 1;
+        if (units < 0) {
+            course.setUnits(null);
+        } else {
+            List<Unit> list = new ArrayList<>(units);
+            for (int i = 0; i < units; i++) list.add(readUnit(in, course));
+            course.setUnits(list);
+        }
+        return course;
+    }
+
+    // The course back-reference is not written, like @JsonBackReference; readers
+    // of a Course get it re-linked, a standalone Unit comes back without it.
+    private static void writeUnit(Out out, Unit unit) {
+        out.writeNullableInt(unit.getId());
+        out.writeNullableInt(unit.getVersion());
+        out.writeString(unit.getTitle());
+        out.writeString(unit.getContent());
+    }
+
+    private static Unit readUnit(In in, Course course) {
+        Unit unit = new Unit();
+        unit.setId(in.readNullableInt());
+        unit.setVersion(in.readNullableInt());
+        unit.setTitle(in.readString());
+        unit.setContent(in.readString());
+        unit.setCourse(course);
+        return unit;
+    }
+
+    private static void writeEnums(Out out, List<? extends Enum<?>> values) {
+        if (values == null || !Hibernate.isInitialized(values)) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(values.size() + 1);
+        for (Enum<?> value : values) out.writeNullableEnum(value);
+    }
+
+    private static <E extends Enum<E>> List<E> readEnums(In in, E[] constants) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) return null;
+        List<E> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) values.add(in.readNullableEnum(constants));
+        return values;
+    }
+
+    private static int writeVarInt(byte[] target, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset++] = (byte) value;
+        return offset;
+    }
+
+    // Growable buffer; exposes its array so compression can read it without a copy.
+    private static final class Out extends ByteArrayOutputStream {
+
+        Out(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        void write(byte b) {
+            write((int) b);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) write((int) (value >>> shift));
+        }
+
+        // 0 is null, otherwise the value shifted by one (zig-zag keeps negatives short)
+        void writeNullableInt(Integer value) {
+            writeVarLong(value == null ? 0 : (((long) value << 1) ^ (value >> 31)) + 1);
+        }
+
+        void writeNullableEnum(Enum<?> value) {
+            writeVarInt(value == null ? 0 : value.ordinal() + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class In {
+
+        private final byte[] bytes;
+        private int position;
+
+        In(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        byte read() {
+            return bytes[position++];
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new SerializationException("Malformed varint in cache value");
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) value = (value << 8) | (bytes[position++] & 0xFF);
+            return value;
+        }
+
+        Integer readNullableInt() {
+            long raw = readVarLong();
+            if (raw == 0) return null;
+            long zigzag = raw - 1;
+            return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+
+        <E extends Enum<E>> E readNullableEnum(E[] constants) {
+            int ordinal = readVarInt() - 1;
+            return ordinal < 0 ? null : constants[ordinal];
+        }
+
+        String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0) return null;
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        byte[] readBytes(int length) {
+            byte[] copy = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.course_backend;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// What TwoLevelCache stores in Redis and in L1: the cached value plus the moment it
+// becomes stale (soft TTL). Stale entries are still served while a refresh runs;
+// Redis' own entry TTL stays the hard limit.
+public record CacheEntry(Object value, long staleAfterMillis) {
+
+    @JsonIgnore
+    public boolean isStale() {
+        return System.currentTimeMillis() >= staleAfterMillis;
+    }
+}
@@ -22,10 +22,18 @@ public class Course  {
 
 
 
+    // Ids come from a sequence in blocks of 50 (pooled-lo, see application.properties) so
+    // inserts can be JDBC batched; IDENTITY needs a round trip per row to learn the id.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
+    @SequenceGenerator(name = "course_seq", sequenceName = "course_seq", allocationSize = 50)
     private Integer id;
 
+    // Bumped by Hibernate on every update. Rejects writes based on an outdated copy and backs
+    // the ETags of GET /api/courses/{id}; rows from before the column get 0 (schema.sql).
+    @Version
+    private Integer version;
+
     @NotBlank(message = "Name cannot be null or blank")
     private String name;
 
@@ -36,21 +44,20 @@ public class Course  {
     @Enumerated(EnumType.STRING)
     private Board board;
 
-    @ElementCollection(targetClass = Subject.class, fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "subject")
+    // Stored on the course row as GIN indexed text[] columns (see EnumListConverter and
+    // schema.sql), so reading a course is one select and facet filters stay on one table.
+    @Convert(converter = EnumListConverter.Subjects.class)
+    @Column(name = "subject", columnDefinition = "text[]")
     @NotEmpty(message = "Subject list cannot be null or empty")
     private List<Subject> subject = new ArrayList<>();
 
-    @ElementCollection(targetClass = Medium.class, fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "medium")
+    @Convert(converter = EnumListConverter.Mediums.class)
+    @Column(name = "medium", columnDefinition = "text[]")
     @NotEmpty(message = "Medium list cannot be null or empty")
     private List<Medium> medium = new ArrayList<>();
 
-    @ElementCollection(targetClass = Grade.class, fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "grade")
+    @Convert(converter = EnumListConverter.Grades.class)
+    @Column(name = "grade", columnDefinition = "text[]")
     @NotEmpty(message = "Grade list cannot be null or empty")
     private List<Grade> grade = new ArrayList<>();
 
@@ -0,0 +1,170 @@
+package com.example.course_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Keys for the coursesList cache, stamped with per-facet-value generation counters kept in Redis.
+//
+// A write bumps the generation of every facet value the course had before and after the change
+// (board:CBSE, medium:ENGLISH, ...) plus "all". A list key embeds the generations of the values it
+// filters on, or of "all" when it has no facet filter. Any course that can appear in a filtered list
+// carries at least one selected value of every filtered facet, so a change to it always moves that
+// list to a new key; lists over unrelated values keep their entries. Superseded keys age out via TTL.
+//
+// A generation that does not exist yet (first use, or Redis was flushed or restarted) starts at a
+// random value rather than 0 or 1, so the new keys and the ETags made from them do not repeat ones
+// from before the reset, which could still be in clients' If-None-Match.
+//
+// Unit lists have one generation per course ("unitsList:gen:<courseId>"), bumped by every unit write.
+@Component("courseCacheKeys")
+public class CourseCacheKeys {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseCacheKeys.class);
+
+    static final String GENERATION_PREFIX = "coursesList:gen:";
+    static final String ALL = "all";
+    static final String UNITS_GENERATION_PREFIX = "unitsList:gen:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public CourseCacheKeys(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String listKey(String board, String medium, String subject, String grade, String search,
+                          String direction, Pageable pageable) {
+        List<String> tags = new ArrayList<>();
+        String filter = facet("board", Board.class, board, tags)
+                + facet("medium", Medium.class, medium, tags)
+                + facet("subject", Subject.class, subject, tags)
+                + facet("grade", Grade.class, grade, tags);
+        if (tags.isEmpty()) tags.add(ALL);
+
+        String q = search == null ? "" : search.trim().toLowerCase();
+        String dir = "desc".equalsIgnoreCase(direction) ? "desc" : "asc";
+        return filter + "q=" + q + "|" + dir + "|p=" + pageable.getPageNumber() + "," + pageable.getPageSize()
+                + "|g=" + generations(tags.stream().map(t -> GENERATION_PREFIX + t).toList());
+    }
+
+    public static Set<String> tagsOf(Course course) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (course == null) return tags;
+        if (course.getBoard() != null) tags.add("board:" + course.getBoard().name());
+        addAll(tags, "medium", course.getMedium());
+        addAll(tags, "subject", course.getSubject());
+        addAll(tags, "grade", course.getGrade());
+        return tags;
+    }
+
+    // For writes that are not tracked course by course (bulk seeding): every facet value's
+    // generation moves, so filtered lists go stale along with the unfiltered ones.
+    public void invalidateAll() {
+        Set<String> tags = new LinkedHashSet<>();
+        addAll(tags, "board", EnumSet.allOf(Board.class));
+        addAll(tags, "medium", EnumSet.allOf(Medium.class));
+        addAll(tags, "subject", EnumSet.allOf(Subject.class));
+        addAll(tags, "grade", EnumSet.allOf(Grade.class));
+        invalidate(tags);
+    }
+
+    // One pipelined round trip: INCR every affected generation and "all" (seeded first if missing).
+    public void invalidate(Collection<String> tags) {
+        Set<String> keys = new LinkedHashSet<>();
+        tags.forEach(t -> keys.add(GENERATION_PREFIX + t));
+        keys.add(GENERATION_PREFIX + ALL);
+        bump(keys);
+    }
+
+    // Version of a course's unit list for ETags (UnitController): one GET, no query
+    public String unitsGeneration(Integer courseId) {
+        return generations(List.of(UNITS_GENERATION_PREFIX + courseId));
+    }
+
+    public void invalidateUnits(Collection<Integer> courseIds) {
+        Set<String> keys = new LinkedHashSet<>();
+        courseIds.forEach(id -> keys.add(UNITS_GENERATION_PREFIX + id));
+        if (!keys.isEmpty()) bump(keys);
+    }
+
+    private void bump(Set<String> keys) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    redis.setNX(key, randomGeneration());
+                    redis.incr(key);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not bump generations {}", keys, e);
+        }
+    }
+
+    private String generations(List<String> keys) {
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (values.stream().anyMatch(Objects::isNull)) values = seedMissing(keys, values);
+        StringBuilder stamp = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) stamp.append('.');
+            stamp.append(values.get(i));
+        }
+        return stamp.toString();
+    }
+
+    // Rare: SETNX a random start for each missing generation and read back whichever value won
+    private List<String> seedMissing(List<String> keys, List<String> values) {
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) == null) missing.add(keys.get(i));
+        }
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (String key : missing) {
+                redis.setNX(key, randomGeneration());
+                redis.get(key);
+            }
+            return null;
+        });
+        List<String> seeded = new ArrayList<>(values);
+        for (int i = 0, m = 0; i < seeded.size(); i++) {
+            if (seeded.get(i) == null) seeded.set(i, (String) replies.get(2 * m++ + 1));
+        }
+        return seeded;
+    }
+
+    static String randomGeneration() {
+        return String.valueOf(ThreadLocalRandom.current().nextLong(1L << 48));
+    }
+
+    private static <E extends Enum<E>> String facet(String name, Class<E> type, String values, List<String> tags) {
+        if (values == null || values.isBlank()) return "";
+        List<String> parsed = CourseSpecifications.parseAll(type, values).stream().map(Enum::name).sorted().toList();
+        parsed.forEach(v -> tags.add(name + ":" + v));
+        return name + "=" + String.join(",", parsed) + "|";
+    }
+
+    private static void addAll(Set<String> tags, String facet, Collection<? extends Enum<?>> values) {
+        if (values == null) return;
+        for (Enum<?> value : values) {
+            if (value != null) tags.add(facet + ":" + value.name());
+        }
+    }
+}
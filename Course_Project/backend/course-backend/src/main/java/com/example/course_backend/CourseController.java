@@ -1,12 +1,20 @@
 package com.example.course_backend;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -14,20 +22,55 @@ import java.util.*;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseImportService importService;
+    private final CourseExportService exportService;
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CourseImportService importService,
+                            CourseExportService exportService) {
         this.courseService = courseService;
+        this.importService = importService;
+        this.exportService = exportService;
     }
 
     @PostMapping
     public ResponseEntity<ApiResponse<Map<String, Object>>> createCourse(@RequestBody Course course) {
-        logger.info("Create course request: {}", course);
+        logger.debug("Create course request: {}", course.getName());
         Course created = courseService.createCourse(course);
         Map<String, Object> result = Map.of("message", "Course created successfully", "data", created);
         return ResponseEntity.status(201).body(ResponseUtil.successWithData("api.course.create", result));
     }
 
+    // Streams the body: NDJSON (one course per line) or CSV with a header row
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<Map<String, Object>>> importCourses(HttpServletRequest request) throws IOException {
+        CourseImportService.ImportResult imported = importService.importCourses(
+                request.getInputStream(), CourseImportService.Format.of(request.getContentType()));
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", imported.failed() == 0 ? "Courses imported successfully" : "Courses imported with errors");
+        result.put("data", imported);
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.course.import", result));
+    }
+
+    // The whole catalog as NDJSON, written while it is read (see CourseExportService);
+    // gzip=true sends a courses.ndjson.gz file instead.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCourses(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024)) {
+                    exportService.exportCourses(zipped);
+                }
+            } else {
+                exportService.exportCourses(new BufferedOutputStream(out, 64 * 1024));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=courses.ndjson" + (gzip ? ".gz" : ""))
+                .body(body);
+    }
+
     @GetMapping("/enums")
     public Map<String, List<String>> getEnums() {
         return Map.of(
@@ -38,6 +81,20 @@ public class CourseController {
         );
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getFacetCounts(
+            @RequestParam(required = false) String board,
+            @RequestParam(required = false) String medium,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String grade,
+            @RequestParam(required = false) String search
+    ) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "Facet counts fetched successfully");
+        result.put("data", courseService.getFacetCounts(board, medium, subject, grade, search));
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.course.facets", result));
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, Object>>> getAllCourses(
             @RequestParam(required = false) String board,
@@ -48,15 +105,48 @@ public class CourseController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "6") int size,
             @RequestParam(defaultValue = "name") String orderBy,
-            @RequestParam(defaultValue = "asc") String direction
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String ids,
+            ServletWebRequest request
     ) {
+        if (ids != null) {
+            return batchGet(parseIds(ids), fields);
+        }
+        // Pages are revalidated against the coursesList key (CourseService.getListKey), which
+        // moves with every write to a course the page could hold. unitCount is not covered by it.
+        // The same key then looks the page up, so it is read from Redis once per request.
+        String listKey = courseService.getListKey(board, medium, subject, grade, search, direction,
+                PageRequest.of(after != null ? 0 : page, size));
+        Set<String> selected = fields == null ? null : CourseSummary.parseFields(fields);
+        if (selected == null || !selected.contains("unitCount")) {
+            if (ETagUtil.checkNotModified(request, ETagUtil.of(listKey, after, selected))) return null;
+        }
+        if (selected != null) {
+            return getCourseSummaries(listKey, board, medium, subject, grade, search, page, size, direction, after,
+                    selected);
+        }
+        if (after != null) {
+            CourseService.SeekPage<Course> seek = courseService.filterSearchSortAfter(
+                    board, medium, subject, grade, search, direction, after, size);
+            List<Course> content = seek.content();
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", content.isEmpty() ? "No courses found" : "Courses fetched successfully");
+            result.put("data", content);
+            result.put("size", content.size());
+            result.put("nextCursor", seek.nextCursor());
+            return ResponseEntity.ok(ResponseUtil.successWithData("api.course.getAll", result));
+        }
+
         Pageable pageable = PageRequest.of(page, size,
                 direction.equalsIgnoreCase("asc")
                         ? Sort.by(orderBy).ascending()
                         : Sort.by(orderBy).descending());
 
         Page<Course> coursesPage = courseService.filterSearchSortPageable(
-                board, medium,subject, grade, search, orderBy, direction, pageable);
+                listKey, board, medium,subject, grade, search, orderBy, direction, pageable);
 
         Map<String, Object> result = new HashMap<>();
         result.put("message", coursesPage.isEmpty() ? "No courses found" : "Courses fetched successfully");
@@ -68,9 +158,91 @@ public class CourseController {
         return ResponseEntity.ok(ResponseUtil.successWithData("api.course.getAll", result));
     }
 
+    // Same as GET /api/courses?ids= for id lists too long for a query string
+    @PostMapping("/batchGet")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> batchGetCourses(
+            @RequestBody Map<String, List<Integer>> body,
+            @RequestParam(required = false) String fields) {
+        return batchGet(body.get("ids"), fields);
+    }
+
+    // Courses in the order of ids (one Redis MGET, one IN query for misses); unknown ids are
+    // left out of data and listed under missing.
+    private ResponseEntity<ApiResponse<Map<String, Object>>> batchGet(List<Integer> ids, String fields) {
+        List<?> data;
+        Set<Integer> found = new HashSet<>();
+        if (fields != null) {
+            Set<String> selected = CourseSummary.parseFields(fields);
+            List<CourseSummary> summaries = courseService.batchGetSummaries(ids, selected.contains("description"));
+            summaries.forEach(s -> found.add(s.id()));
+            data = summaries.stream().map(s -> s.select(selected)).toList();
+        } else {
+            List<Course> courses = courseService.batchGetCourses(ids);
+            courses.forEach(c -> found.add(c.getId()));
+            data = courses;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", data.isEmpty() ? "No courses found" : "Courses fetched successfully");
+        result.put("data", data);
+        result.put("missing", ids.stream().filter(id -> !found.contains(id)).distinct().toList());
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.course.batchGet", result));
+    }
+
+    private static List<Integer> parseIds(String ids) {
+        List<Integer> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (id.isBlank()) continue;
+            try {
+                parsed.add(Integer.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid course id: " + id.trim());
+            }
+        }
+        return parsed;
+    }
+
+    // ?fields=...: list items carry only the selected CourseSummary fields
+    private ResponseEntity<ApiResponse<Map<String, Object>>> getCourseSummaries(
+            String listKey, String board, String medium, String subject, String grade, String search,
+            int page, int size, String direction, String after, Set<String> fields) {
+        boolean withDescription = fields.contains("description");
+        Map<String, Object> result = new HashMap<>();
+        if (after != null) {
+            CourseService.SeekPage<CourseSummary> seek = courseService.filterSearchSortSummariesAfter(
+                    board, medium, subject, grade, search, direction, after, size, withDescription);
+            List<CourseSummary> content = seek.content();
+            result.put("message", content.isEmpty() ? "No courses found" : "Courses fetched successfully");
+            result.put("data", content.stream().map(s -> s.select(fields)).toList());
+            result.put("size", content.size());
+            result.put("nextCursor", seek.nextCursor());
+            return ResponseEntity.ok(ResponseUtil.successWithData("api.course.getAll", result));
+        }
+
+        Page<CourseSummary> summaries = courseService.filterSearchSortSummaries(
+                listKey, board, medium, subject, grade, search, direction, withDescription, PageRequest.of(page, size));
+        result.put("message", summaries.isEmpty() ? "No courses found" : "Courses fetched successfully");
+        result.put("data", summaries.getContent().stream().map(s -> s.select(fields)).toList());
+        result.put("totalPages", summaries.getTotalPages());
+        result.put("totalElements", summaries.getTotalElements());
+        result.put("currentPage", summaries.getNumber());
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.course.getAll", result));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCourseById(@PathVariable Integer id) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCourseById(@PathVariable Integer id,
+                                                                          ServletWebRequest request) {
+        // 304 from the cached version alone, before the course is loaded
+        Integer version = courseService.getCourseVersion(id);
+        if (ETagUtil.checkNotModified(request, ETagUtil.of("course", id, version))) {
+            return null;
+        }
         Course course = courseService.getCourseById(id);
+        // "courses" and "courseVersions" are separate entries, and a read racing a write can refill
+        // one of them with the old row. The ETag sent must be the body's own version.
+        if (!Objects.equals(course.getVersion(), version) && request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.ETAG, ETagUtil.of("course", id, course.getVersion()));
+        }
         Map<String, Object> result = Map.of("message", "Course fetched successfully", "data", course);
         return ResponseEntity.ok(ResponseUtil.successWithData("api.course.getById", result));
     }
@@ -83,6 +255,16 @@ public class CourseController {
         return ResponseEntity.ok(ResponseUtil.successWithData("api.course.update", result));
     }
 
+    // {"courses": [{"id": 1, "grade": ["CLASS_5"]}, ...], "units": [{"id": 7, "title": "..."}, ...]};
+    // every patch takes the fields of the single PATCH endpoints, all or nothing
+    @PatchMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> patchCourses(
+            @RequestBody Map<String, List<Map<String, Object>>> patches) {
+        CourseService.BulkPatchResult patched = courseService.patchInBulk(patches.get("courses"), patches.get("units"));
+        Map<String, Object> result = Map.of("message", "Courses patched successfully", "data", patched);
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.course.bulkPatch", result));
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<ApiResponse<Map<String, Object>>> patchCourse(@PathVariable Integer id,
                                                                         @RequestBody Map<String, Object> updates) {
@@ -97,4 +279,4 @@ public class CourseController {
         Map<String, Object> result = Map.of("message", "Course deleted successfully");
         return ResponseEntity.ok(ResponseUtil.successWithData("api.course.delete", result));
     }
-}
\ No newline at end of file
+}
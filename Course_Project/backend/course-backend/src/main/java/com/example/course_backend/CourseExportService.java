@@ -0,0 +1,101 @@
+package com.example.course_backend;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Writes the whole catalog as NDJSON: one line per course with its facets and units.
+// Courses come from a server-side cursor (CourseRepository.streamAllByOrderById) and are
+// handled CHUNK_SIZE at a time: one IN query for the chunk's units, write, then detach
+// everything, so memory does not grow with the catalog.
+@Service
+public class CourseExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseExportService.class);
+
+    static final int CHUNK_SIZE = 500;
+
+    private final CourseRepository courseRepository;
+    private final UnitRepository unitRepository;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CourseExportService(CourseRepository courseRepository, UnitRepository unitRepository,
+                               ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.unitRepository = unitRepository;
+        // one writer for the whole stream; it must not close the response after the first line
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // Runs in its own read-only transaction (the cursor needs one); repeatable read gives the
+    // export a single snapshot of course and unit even though it reads them in separate queries.
+    public long exportCourses(OutputStream out) {
+        long started = System.currentTimeMillis();
+        Long count = transactionTemplate.execute(status -> {
+            long written = 0;
+            List<Course> chunk = new ArrayList<>(CHUNK_SIZE);
+            try (Stream<Course> courses = courseRepository.streamAllByOrderById()) {
+                Iterator<Course> it = courses.iterator();
+                while (it.hasNext()) {
+                    chunk.add(it.next());
+                    if (chunk.size() == CHUNK_SIZE || !it.hasNext()) {
+                        writeChunk(chunk, out);
+                        written += chunk.size();
+                        chunk.clear();
+                    }
+                }
+            }
+            return written;
+        });
+        logger.info("Exported {} courses in {} ms", count, System.currentTimeMillis() - started);
+        return count;
+    }
+
+    private void writeChunk(List<Course> chunk, OutputStream out) {
+        Map<Integer, List<Unit>> units = unitRepository.findByCourseIdIn(
+                        chunk.stream().map(Course::getId).toList()).stream()
+                .collect(Collectors.groupingBy(u -> u.getCourse().getId()));
+        try {
+            for (Course course : chunk) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("id", course.getId());
+                line.put("name", course.getName());
+                line.put("description", course.getDescription());
+                line.put("board", course.getBoard());
+                line.put("subject", course.getSubject());
+                line.put("medium", course.getMedium());
+                line.put("grade", course.getGrade());
+                line.put("units", units.getOrDefault(course.getId(), List.of()));
+                writer.writeValue(out, line);
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            // usually the client went away; ends the transaction and the cursor
+            throw new UncheckedIOException(e);
+        }
+        entityManager.clear();
+    }
+}
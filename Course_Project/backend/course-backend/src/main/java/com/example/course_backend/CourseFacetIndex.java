@@ -0,0 +1,305 @@
+package com.example.course_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// In-memory index of course ids per Board/Medium/Subject/Grade value, one BitSet per enum
+// constant. Facet filters become OR within a facet and AND across facets over a handful
+// of bitsets instead of a table scan. Kept current by CourseService on every write.
+//
+// Every node has its own copy. Writes are broadcast as course ids on the cache invalidation
+// channel and the other nodes reload those rows; a full rebuild every facet-index.rebuild-interval
+// repairs what a lost message left behind. Since a node can still lag for a moment, totals that
+// are cached for the whole cluster (CourseListService) are counted in the database instead.
+@Component
+public class CourseFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseFacetIndex.class);
+
+    static final String CHANNEL_NAME = "facetIndex";
+
+    private final CourseRepository courseRepository;
+    private final TwoLevelCacheManager cacheManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Replaced as a whole by rebuild(); guarded by lock
+    private Bits bits = new Bits();
+    // Ids written while a rebuild is loading, null when none is; guarded by lock
+    private Set<Integer> changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    public CourseFacetIndex(CourseRepository courseRepository, TwoLevelCacheManager cacheManager) {
+        this.courseRepository = courseRepository;
+        this.cacheManager = cacheManager;
+        cacheManager.addInvalidationListener(CHANNEL_NAME, this::onChanged);
+    }
+
+    // Runs after CommandLineRunners, so DataSeeder rows are included.
+    // The table is read into new bitsets without the lock, so reads and writes carry on against
+    // the current ones meanwhile. Ids written during the load may be stale in the new bitsets;
+    // they are copied over from the current ones, which have those writes, when swapping.
+    // Synchronized so a scheduled and an on-demand rebuild don't share changedDuringRebuild.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${facet-index.rebuild-interval:10m}",
+            fixedDelayString = "${facet-index.rebuild-interval:10m}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bits rebuilt = new Bits();
+        try {
+            courseRepository.findAllFacets().forEach(rebuilt::add);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int size;
+        lock.writeLock().lock();
+        try {
+            for (Integer id : changedDuringRebuild) rebuilt.copyId(bits, id);
+            changedDuringRebuild = null;
+            bits = rebuilt;
+            size = rebuilt.all.cardinality();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Facet index built for {} courses", size);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // For a request that arrives before the startup rebuild finished: builds the index unless
+    // it is ready by the time this holds the monitor, so requests queued behind one rebuild
+    // don't each read the whole table again.
+    public synchronized void ensureReady() {
+        if (!ready) rebuild();
+    }
+
+    // index/indexAll/remove take committed writes and tell the other nodes about them
+    public void index(Course course) {
+        indexAll(List.of(course));
+    }
+
+    public void indexAll(Collection<Course> courses) {
+        if (courses.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            for (Course course : courses) {
+                int id = course.getId();
+                bits.clearId(id);
+                bits.all.set(id);
+                if (course.getBoard() != null) bits.boards.set(id, course.getBoard());
+                bits.mediums.setAll(id, course.getMedium());
+                bits.subjects.setAll(id, course.getSubject());
+                bits.grades.setAll(id, course.getGrade());
+                changed(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        publish(courses.stream().map(Course::getId).toList());
+    }
+
+    public void remove(Integer courseId) {
+        lock.writeLock().lock();
+        try {
+            bits.clearId(courseId);
+            changed(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        publish(List.of(courseId));
+    }
+
+    // caller holds the write lock
+    private void changed(int id) {
+        if (changedDuringRebuild != null) changedDuringRebuild.add(id);
+    }
+
+    // One message per write: "<id>,<id>,..."
+    private void publish(Collection<Integer> ids) {
+        cacheManager.publishInvalidation(CHANNEL_NAME,
+                ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    // Another node wrote these courses: reload their rows; ids without a row were deleted
+    void onChanged(String message) {
+        if (!ready) return; // the pending rebuild reads them anyway
+        List<Integer> ids;
+        try {
+            ids = Arrays.stream(message.split(",")).map(Integer::valueOf).toList();
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed facet index message {}", message);
+            return;
+        }
+        List<Object[]> rows = courseRepository.findFacetsByIdIn(ids);
+        lock.writeLock().lock();
+        try {
+            ids.forEach(id -> {
+                bits.clearId(id);
+                changed(id);
+            });
+            rows.forEach(bits::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Same parameter semantics as CourseSpecifications.filter: blank means "any",
+    // comma separated values are OR-ed, unknown values match nothing.
+    // Returns a private copy the caller may modify.
+    public BitSet match(String board, String medium, String subject, String grade) {
+        lock.readLock().lock();
+        try {
+            return bits.base(null, board, medium, subject, grade);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Disjunctive facet counts: each facet is counted against every current filter except
+    // its own, so the other values of a selected facet still show how many courses they add.
+    // `within` optionally narrows everything further (e.g. ids matching a text search).
+    public Map<String, Map<String, Integer>> counts(String board, String medium, String subject, String grade,
+                                                    BitSet within) {
+        lock.readLock().lock();
+        try {
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            counts.put("boards", bits.boards.counts(bits.base(within, null, medium, subject, grade)));
+            counts.put("mediums", bits.mediums.counts(bits.base(within, board, null, subject, grade)));
+            counts.put("subjects", bits.subjects.counts(bits.base(within, board, medium, null, grade)));
+            counts.put("grades", bits.grades.counts(bits.base(within, board, medium, subject, null)));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One complete set of bitsets
+    private static final class Bits {
+
+        final BitSet all = new BitSet();
+        final Facet<Board> boards = new Facet<>(Board.class);
+        final Facet<Medium> mediums = new Facet<>(Medium.class);
+        final Facet<Subject> subjects = new Facet<>(Subject.class);
+        final Facet<Grade> grades = new Facet<>(Grade.class);
+
+        // A row of CourseRepository.findAllFacets/findFacetsByIdIn
+        @SuppressWarnings("unchecked")
+        void add(Object[] row) {
+            int id = (Integer) row[0];
+            all.set(id);
+            if (row[1] != null) boards.set(id, (Board) row[1]);
+            mediums.setAll(id, (List<Medium>) row[2]);
+            subjects.setAll(id, (List<Subject>) row[3]);
+            grades.setAll(id, (List<Grade>) row[4]);
+        }
+
+        BitSet base(BitSet within, String board, String medium, String subject, String grade) {
+            BitSet result = (BitSet) all.clone();
+            if (within != null) result.and(within);
+            boards.restrict(result, board);
+            mediums.restrict(result, medium);
+            subjects.restrict(result, subject);
+            grades.restrict(result, grade);
+            return result;
+        }
+
+        void clearId(int id) {
+            all.clear(id);
+            boards.clearId(id);
+            mediums.clearId(id);
+            subjects.clearId(id);
+            grades.clearId(id);
+        }
+
+        // Makes id's bits the same as in other
+        void copyId(Bits other, int id) {
+            all.set(id, other.all.get(id));
+            boards.copyId(other.boards, id);
+            mediums.copyId(other.mediums, id);
+            subjects.copyId(other.subjects, id);
+            grades.copyId(other.grades, id);
+        }
+    }
+
+    private static final class Facet<E extends Enum<E>> {
+
+        private final Class<E> type;
+        private final Map<E, BitSet> bits;
+
+        Facet(Class<E> type) {
+            this.type = type;
+            this.bits = new EnumMap<>(type);
+            for (E value : type.getEnumConstants()) bits.put(value, new BitSet());
+        }
+
+        void set(int id, E value) {
+            bits.get(value).set(id);
+        }
+
+        void setAll(int id, Collection<E> values) {
+            if (values == null) return;
+            for (E value : values) {
+                if (value != null) set(id, value);
+            }
+        }
+
+        void clearId(int id) {
+            bits.values().forEach(b -> b.clear(id));
+        }
+
+        void copyId(Facet<E> other, int id) {
+            bits.forEach((value, b) -> b.set(id, other.bits.get(value).get(id)));
+        }
+
+        void restrict(BitSet result, String values) {
+            if (values == null || values.isBlank()) return;
+            List<E> parsed = CourseSpecifications.parseAll(type, values);
+            BitSet union = new BitSet();
+            parsed.forEach(v -> union.or(bits.get(v)));
+            result.and(union);
+        }
+
+        Map<String, Integer> counts(BitSet base) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            bits.forEach((value, b) -> {
+                BitSet hit = (BitSet) b.clone();
+                hit.and(base);
+                counts.put(value.name(), hit.cardinality());
+            });
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.course_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Moves subject/medium/grade from the old element collection tables (course_subject,
+// course_medium, course_grade) into the text[] columns on course, then drops each table:
+// nothing writes to them any more and their foreign keys would block course deletes.
+// One transaction, so a failure leaves the old tables intact; on databases created after
+// the switch there is nothing to do. For a rollback the arrays unnest back into the old
+// tables (insert into course_medium select id, unnest(medium) from course).
+// Ordered before DataSeeder, and runners finish before the facet index is built.
+@Component
+@Order(0)
+public class CourseFacetMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseFacetMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CourseFacetMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        // nodes starting together take turns; the second one finds the tables gone
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(hashtext('course_facet_migration'))", Object.class);
+        migrate("course_subject", "subject");
+        migrate("course_medium", "medium");
+        migrate("course_grade", "grade");
+    }
+
+    // Table and column names are constants above, never user input.
+    private void migrate(String table, String column) {
+        Boolean exists = jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, table);
+        if (!Boolean.TRUE.equals(exists)) return;
+        int updated = jdbcTemplate.update(
+                "update course c set " + column + " = coalesce((select array_agg(t." + column + "::text) from "
+                        + table + " t where t.course_id = c.id), '{}') where c." + column + " is null");
+        jdbcTemplate.execute("drop table " + table);
+        logger.info("Copied {} into course.{} for {} courses and dropped the table", table, column, updated);
+    }
+}
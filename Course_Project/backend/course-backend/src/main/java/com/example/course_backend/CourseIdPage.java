@@ -0,0 +1,7 @@
+package com.example.course_backend;
+
+// What the coursesList cache holds for one page: the course ids in list order and the
+// total. Course bodies live only in the "courses" cache, so an update shows up in every
+// list at once and is not duplicated per filter combination.
+public record CourseIdPage(int[] ids, long totalElements) {
+}
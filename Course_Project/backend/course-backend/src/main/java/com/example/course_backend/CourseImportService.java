@@ -0,0 +1,305 @@
+package com.example.course_backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Bulk import of courses (with nested units) and of units for one course, from NDJSON or CSV.
+// The body is read line by line and rows are written in chunks: one transaction and a few
+// JDBC batches per chunk (see hibernate.jdbc.batch_size), so memory stays flat however big
+// the upload is. Bad rows are reported with their line number and never stop the import.
+@Service
+public class CourseImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseImportService.class);
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Set<String> COURSE_COLUMNS = Set.of("name", "description", "board", "subject", "medium", "grade");
+    private static final Set<String> LIST_COLUMNS = Set.of("subject", "medium", "grade");
+    private static final Set<String> UNIT_COLUMNS = Set.of("title", "content");
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format of(String contentType) {
+            if (contentType != null) {
+                String type = contentType.split(";")[0].trim().toLowerCase();
+                if (type.equals("application/x-ndjson")) return NDJSON;
+                if (type.equals("text/csv")) return CSV;
+            }
+            throw new BadRequestException("Content type must be application/x-ndjson or text/csv");
+        }
+    }
+
+    public record RowError(long line, String error) {}
+
+    public record ImportResult(int imported, int failed, List<RowError> errors) {}
+
+    private record Row<T>(long line, T value) {}
+
+    private final CourseService courseService;
+    private final UnitService unitService;
+    private final CourseRepository courseRepository;
+    private final CourseFacetIndex facetIndex;
+    private final CourseCacheKeys cacheKeys;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CourseImportService(CourseService courseService, UnitService unitService,
+                               CourseRepository courseRepository, CourseFacetIndex facetIndex,
+                               CourseCacheKeys cacheKeys, ObjectMapper objectMapper,
+                               TransactionTemplate transactionTemplate) {
+        this.courseService = courseService;
+        this.unitService = unitService;
+        this.courseRepository = courseRepository;
+        this.facetIndex = facetIndex;
+        this.cacheKeys = cacheKeys;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // NDJSON rows are course JSON as for POST /api/courses and may carry "units".
+    // CSV needs a header naming the course columns; subject/medium/grade values are '|' separated.
+    public ImportResult importCourses(InputStream body, Format format) {
+        Importer<Course> importer = new Importer<>(
+                course -> {
+                    course.setId(null);
+                    course.getUnits().forEach(unit -> unit.setId(null));
+                },
+                saved -> {
+                    facetIndex.indexAll(saved);
+                    Set<String> tags = new HashSet<>();
+                    for (Course course : saved) tags.addAll(CourseCacheKeys.tagsOf(course));
+                    // one bump for the whole chunk instead of one per course
+                    cacheKeys.invalidate(tags);
+                });
+
+        read(body, format, COURSE_COLUMNS, fields -> {
+            Course course = objectMapper.convertValue(fields, Course.class);
+            courseService.validateNewCourse(course);
+            List<Unit> units = course.getUnits();
+            for (int i = 0; i < units.size(); i++) {
+                if (units.get(i) == null)
+                    throw new BadRequestException("units[" + i + "]: Unit must be an object");
+                try {
+                    unitService.validateNewUnit(units.get(i));
+                } catch (BadRequestException e) {
+                    throw new BadRequestException("units[" + i + "]: " + e.getMessage());
+                }
+                units.get(i).setCourse(course);
+            }
+            return course;
+        }, importer);
+
+        ImportResult result = importer.finish();
+        logger.info("Imported {} courses ({} rows failed)", result.imported(), result.failed());
+        return result;
+    }
+
+    // Units for an existing course; rows are {"title", "content"} or a title,content CSV.
+    public ImportResult importUnits(Integer courseId, InputStream body, Format format) {
+        if (!courseRepository.existsById(courseId))
+            throw new NotFoundException("Course not found");
+
+        Importer<Unit> importer = new Importer<>(unit -> unit.setId(null),
+                saved -> cacheKeys.invalidateUnits(List.of(courseId)));
+        read(body, format, UNIT_COLUMNS, fields -> {
+            Unit unit = objectMapper.convertValue(fields, Unit.class);
+            unitService.validateNewUnit(unit);
+            // a reference, not a select per unit; the course row was checked above
+            unit.setCourse(entityManager.getReference(Course.class, courseId));
+            return unit;
+        }, importer);
+
+        ImportResult result = importer.finish();
+        logger.info("Imported {} units into course {} ({} rows failed)", result.imported(), courseId, result.failed());
+        return result;
+    }
+
+    private <T> void read(InputStream body, Format format, Set<String> csvColumns,
+                          Function<Map<String, Object>, T> parser, Importer<T> importer) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && header == null) {
+                    header = csvHeader(line, csvColumns);
+                    continue;
+                }
+                try {
+                    Map<String, Object> fields = format == Format.CSV
+                            ? csvFields(header, splitCsv(line))
+                            : objectMapper.readValue(line, objectMapper.getTypeFactory()
+                                    .constructMapType(LinkedHashMap.class, String.class, Object.class));
+                    // an NDJSON line of just "null"
+                    if (fields == null) throw new BadRequestException("Row must be an object");
+                    importer.add(new Row<>(lineNumber, parser.apply(fields)));
+                } catch (JsonProcessingException e) {
+                    importer.reject(lineNumber, e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    // convertValue wraps Jackson's errors (unknown enum values and the like)
+                    importer.reject(lineNumber, e.getCause() instanceof JsonProcessingException json
+                            ? json.getOriginalMessage() : e.getMessage());
+                } catch (BadRequestException e) {
+                    importer.reject(lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> csvHeader(String line, Set<String> allowed) {
+        List<String> header = splitCsv(line).stream().map(c -> c.trim().toLowerCase()).toList();
+        for (String column : header) {
+            if (!allowed.contains(column))
+                throw new BadRequestException("Unknown CSV column: " + column + " (expected " + new TreeSet<>(allowed) + ")");
+        }
+        return header;
+    }
+
+    private static Map<String, Object> csvFields(List<String> header, List<String> values) {
+        if (values.size() != header.size())
+            throw new BadRequestException("Expected " + header.size() + " columns, found " + values.size());
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i);
+            String value = values.get(i);
+            fields.put(column, LIST_COLUMNS.contains(column)
+                    ? Arrays.stream(value.split("\\|")).map(String::trim).filter(v -> !v.isEmpty()).toList()
+                    : value);
+        }
+        return fields;
+    }
+
+    // RFC 4180 fields on one line: commas inside double quotes, "" for a literal quote
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') value.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') value.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new BadRequestException("Unterminated quoted field");
+        values.add(value.toString());
+        return values;
+    }
+
+    // Collects parsed rows and writes them CHUNK_SIZE at a time.
+    private class Importer<T> {
+
+        private final Consumer<T> resetId;
+        private final Consumer<List<T>> afterCommit;
+        private final List<Row<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        Importer(Consumer<T> resetId, Consumer<List<T>> afterCommit) {
+            this.resetId = resetId;
+            this.afterCommit = afterCommit;
+        }
+
+        void add(Row<T> row) {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) flush();
+        }
+
+        void reject(long line, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RowError(line, error));
+        }
+
+        ImportResult finish() {
+            flush();
+            return new ImportResult(imported, failed, errors);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) return;
+            List<T> values = chunk.stream().map(Row::value).toList();
+            List<T> saved;
+            try {
+                save(values);
+                saved = values;
+            } catch (RuntimeException e) {
+                // A constraint violation rolls back the whole chunk: retry its rows one by one
+                // so only the offending rows are reported.
+                logger.warn("Import chunk of {} rows failed, retrying row by row: {}", values.size(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                saved = new ArrayList<>();
+                for (Row<T> row : chunk) {
+                    resetId.accept(row.value());
+                    try {
+                        save(List.of(row.value()));
+                    } catch (RuntimeException rowError) {
+                        resetId.accept(row.value());
+                        reject(row.line(), "Could not be saved: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                        continue;
+                    }
+                    saved.add(row.value());
+                }
+            }
+            imported += saved.size();
+            chunk.clear();
+            committed(saved);
+        }
+
+        // The rows are in the database whatever happens here. A failure (e.g. Redis being down)
+        // leaves cached lists and other nodes' facet indexes behind until they expire or rebuild,
+        // and must not fail the rest of the import.
+        private void committed(List<T> saved) {
+            if (saved.isEmpty()) return;
+            try {
+                afterCommit.accept(saved);
+            } catch (RuntimeException e) {
+                logger.warn("Could not update caches after importing {} rows", saved.size(), e);
+            }
+        }
+
+        private void save(List<T> values) {
+            transactionTemplate.executeWithoutResult(status -> {
+                values.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.course_backend;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Offset-paged course listing. Lives in its own bean so the coursesList @Cacheable goes
+// through the proxy; keys carry facet generations, see CourseCacheKeys.
+@Service
+public class CourseListService {
+
+    private final CourseRepository courseRepository;
+    private final SearchService searchService;
+
+    public CourseListService(CourseRepository courseRepository, SearchService searchService) {
+        this.courseRepository = courseRepository;
+        this.searchService = searchService;
+    }
+
+    // Filtering, the case-insensitive name sort and LIMIT/OFFSET are all done by Postgres.
+    // Only ids are cached here; CourseService hydrates them from the "courses" cache. listKey is
+    // CourseCacheKeys.listKey for the same arguments, computed once per request by the caller.
+    @Cacheable(value = "coursesList", sync = true, key = "#listKey")
+    public CourseIdPage findPage(String listKey, String board, String medium, String subject, String grade,
+                                 String search, String direction, Pageable pageable) {
+        // A search term switches to full-text search, ordered by relevance
+        if (search != null && !search.isBlank()) {
+            return searchService.searchCourseIds(board, medium, subject, grade, search, pageable);
+        }
+
+        Specification<Course> spec = CourseSpecifications.filter(board, medium, subject, grade);
+        Sort sort = CourseSpecifications.nameOrder(direction);
+
+        // The page is cached for every node, so its total is counted in the database rather
+        // than taken from this node's CourseFacetIndex, which may not have seen another node's
+        // latest write yet. Empty and out-of-range pages skip the id query.
+        long total = courseRepository.count(spec);
+        if (pageable.getOffset() >= total) return new CourseIdPage(new int[0], total);
+        List<Integer> ids = courseRepository.findIds(spec, sort, pageable.getOffset(), pageable.getPageSize());
+        return new CourseIdPage(ids.stream().mapToInt(Integer::intValue).toArray(), total);
+    }
+}
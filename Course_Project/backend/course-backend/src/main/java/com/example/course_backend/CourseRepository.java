@@ -1,13 +1,97 @@
 package com.example.course_backend;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 
 
-public interface CourseRepository extends JpaRepository<Course, Integer> {
+
+public interface CourseRepository extends JpaRepository<Course, Integer>, JpaSpecificationExecutor<Course>,
+        CourseRepositoryCustom {
     Page<Course> findAll(Pageable pageable);
 
+    // Facet rows (id, board, medium, subject, grade) used to build CourseFacetIndex
+    // without loading entities; the lists come back already converted.
+    @Query("select c.id, c.board, c.medium, c.subject, c.grade from Course c")
+    List<Object[]> findAllFacets();
+
+    // The same rows for a few courses, when another node changed them (CourseFacetIndex)
+    @Query("select c.id, c.board, c.medium, c.subject, c.grade from Course c where c.id in :ids")
+    List<Object[]> findFacetsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Just the version column, for conditional GETs (CourseService.getCourseVersion)
+    @Query("select c.version from Course c where c.id = :id")
+    Integer findVersionById(@Param("id") Integer id);
+
+    // The whole catalog through a server-side cursor (Postgres only honours the fetch size
+    // inside a transaction); used by CourseExportService, which detaches rows as it goes.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + CourseExportService.CHUNK_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Course c order by c.id")
+    Stream<Course> streamAllByOrderById();
+
+    // List items without loading entities: the unit count is an index-only count on
+    // idx_unit_course_id and the description is cut in SQL (previewLength 0 leaves it out).
+    @Query("select new com.example.course_backend.CourseSummary(c.id, c.name, c.board, c.subject, c.medium, c.grade, " +
+            "(select count(u) from Unit u where u.course = c), " +
+            "case when :previewLength > 0 then substring(c.description, 1, :previewLength) end) " +
+            "from Course c where c.id in :ids")
+    List<CourseSummary> findSummaries(@Param("ids") Collection<Integer> ids, @Param("previewLength") int previewLength);
+
+    // Full-text search over the GIN indexed course.search_vector (see schema.sql).
+    // Facet params are comma separated enum names, '' meaning "any".
+    String TEXT_SEARCH_WHERE = """
+            from course c
+            where c.search_vector @@ to_tsquery('english', :query)
+              and (:boards = '' or c.board = any(string_to_array(:boards, ',')))
+              and (:mediums = '' or c.medium && string_to_array(:mediums, ','))
+              and (:subjects = '' or c.subject && string_to_array(:subjects, ','))
+              and (:grades = '' or c.grade && string_to_array(:grades, ','))
+            """;
+
+    @Query(value = "select c.id " + TEXT_SEARCH_WHERE +
+            "order by ts_rank(c.search_vector, to_tsquery('english', :query)) desc, c.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Integer> searchIds(@Param("query") String query, @Param("boards") String boards,
+                            @Param("mediums") String mediums, @Param("subjects") String subjects,
+                            @Param("grades") String grades, @Param("limit") int limit,
+                            @Param("offset") long offset);
+
+    // Seek variant of searchIds for ?after=: (id, rank) rows strictly after the cursor in
+    // (rank desc, id) order, the rank cast back to real so the cursor's copy compares equal.
+    // afterId 0 starts from the first row.
+    @Query(value = "select c.id, ts_rank(c.search_vector, to_tsquery('english', :query)) as rank " +
+            TEXT_SEARCH_WHERE +
+            "and (:afterId = 0 " +
+            "  or ts_rank(c.search_vector, to_tsquery('english', :query)) < cast(:afterRank as real) " +
+            "  or (ts_rank(c.search_vector, to_tsquery('english', :query)) = cast(:afterRank as real) " +
+            "      and c.id > :afterId)) " +
+            "order by rank desc, c.id limit :limit", nativeQuery = true)
+    List<Object[]> searchIdsAfter(@Param("query") String query, @Param("boards") String boards,
+                                  @Param("mediums") String mediums, @Param("subjects") String subjects,
+                                  @Param("grades") String grades, @Param("afterId") int afterId,
+                                  @Param("afterRank") float afterRank, @Param("limit") int limit);
+
+    @Query(value = "select count(*) " + TEXT_SEARCH_WHERE, nativeQuery = true)
+    long countSearch(@Param("query") String query, @Param("boards") String boards,
+                     @Param("mediums") String mediums, @Param("subjects") String subjects,
+                     @Param("grades") String grades);
+
+    @Query(value = "select c.id from course c where c.search_vector @@ to_tsquery('english', :query)",
+            nativeQuery = true)
+    List<Integer> findIdsMatchingText(@Param("query") String query);
+
 }
@@ -0,0 +1,12 @@
+package com.example.course_backend;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CourseRepositoryCustom {
+
+    // Just the ids of one page, in sort order; nothing else of the course is selected.
+    List<Integer> findIds(Specification<Course> spec, Sort sort, long offset, int limit);
+}
@@ -5,9 +5,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,14 +20,42 @@ public class CourseService {
 
     private final CourseRepository courseRepository;
     private final UnitRepository unitRepository;
-
-    public CourseService(CourseRepository courseRepository, UnitRepository unitRepository) {
+    private final CourseFacetIndex facetIndex;
+    private final SearchService searchService;
+    private final CourseListService courseListService;
+    private final CourseCacheKeys cacheKeys;
+    private final TwoLevelCacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public CourseService(CourseRepository courseRepository, UnitRepository unitRepository,
+                         CourseFacetIndex facetIndex, SearchService searchService,
+                         CourseListService courseListService, CourseCacheKeys cacheKeys,
+                         TwoLevelCacheManager cacheManager, TransactionTemplate transactionTemplate) {
         this.courseRepository = courseRepository;
         this.unitRepository = unitRepository;
+        this.facetIndex = facetIndex;
+        this.searchService = searchService;
+        this.courseListService = courseListService;
+        this.cacheKeys = cacheKeys;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = transactionTemplate;
     }
 
-   @CacheEvict(value = {"courses", "coursesList"}, allEntries = true)
+    // A new course has no "courses" entry yet; only lists that could contain it move on
     public Course createCourse(Course course) {
+        validateNewCourse(course);
+
+        Course saved = courseRepository.save(course);
+        facetIndex.index(saved);
+        cacheKeys.invalidate(CourseCacheKeys.tagsOf(saved));
+        logger.info("Created course: {} (id={})", saved.getName(), saved.getId());
+        return saved;
+    }
+
+    // The rules createCourse applies, shared with the bulk import (CourseImportService)
+    public void validateNewCourse(Course course) {
+        // Hibernate starts the version; one sent by the client would make save() merge instead of insert
+        course.setVersion(null);
 
         if (course.getMedium() != null) {
             course.setMedium(course.getMedium().stream()
@@ -61,22 +92,80 @@ public class CourseService {
             throw new BadRequestException("Subject required");
 
         if (course.getUnits() == null) course.setUnits(new ArrayList<>());
-
-        Course saved = courseRepository.save(course);
-        logger.info("Created course: {} (id={})", saved.getName(), saved.getId());
-        return saved;
     }
 
 
-    @Cacheable(value = "courses", key = "#courseId")
+    @Cacheable(value = "courses", key = "#courseId", sync = true)
     public Course getCourseById(Integer courseId) {
         return courseRepository.findById(courseId)
                 .orElseThrow(() -> new NotFoundException("Course not found with id: " + courseId));
     }
 
-    @CacheEvict(value = {"courses", "coursesList"}, allEntries = true)
+    // The version alone, for ETags: a conditional GET is answered from this small entry without
+    // loading the course. Evicted together with "courses" on every write.
+    @Cacheable(value = "courseVersions", key = "#courseId", sync = true)
+    public Integer getCourseVersion(Integer courseId) {
+        Integer version = courseRepository.findVersionById(courseId);
+        if (version == null) throw new NotFoundException("Course not found with id: " + courseId);
+        return version;
+    }
+
+    // The coursesList key of a page. It changes whenever a course that is or could be on the page
+    // changes, as it carries the facet generations (CourseCacheKeys), so it doubles as the page's
+    // version for ETags. One Redis MGET, no query.
+    public String getListKey(String board, String medium, String subject, String grade, String search,
+                                 String direction, Pageable pageable) {
+        return cacheKeys.listKey(board, medium, subject, grade, search, direction,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    // Several courses in the given order, through the same "courses" cache as getCourseById:
+    // L1, then one Redis MGET, then one IN query for what is still missing, which is written
+    // back in one pipeline. Ids that no longer exist are left out.
+    public List<Course> getCoursesByIds(List<Integer> ids) {
+        TwoLevelCache cache = cacheManager.getCache("courses");
+        Map<Object, Object> found = cache.getAll(ids);
+        List<Integer> missing = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            Map<Object, Object> loaded = new HashMap<>();
+            courseRepository.findAllById(missing).forEach(c -> loaded.put(c.getId(), c));
+            cache.putAll(loaded);
+            found.putAll(loaded);
+        }
+        List<Course> courses = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Course course = (Course) found.get(id);
+            if (course != null) courses.add(course);
+        }
+        return courses;
+    }
+
+    static final int MAX_BATCH_IDS = 500;
+
+    // GET /api/courses?ids= and POST /api/courses/batchGet
+    public List<Course> batchGetCourses(List<Integer> ids) {
+        checkBatchIds(ids);
+        return getCoursesByIds(ids);
+    }
+
+    public List<CourseSummary> batchGetSummaries(List<Integer> ids, boolean withDescription) {
+        checkBatchIds(ids);
+        return getCourseSummaries(ids, withDescription);
+    }
+
+    private static void checkBatchIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty())
+            throw new BadRequestException("At least one id is required");
+        if (ids.size() > MAX_BATCH_IDS)
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+        if (ids.contains(null))
+            throw new BadRequestException("Ids cannot be null");
+    }
+
+    @CacheEvict(value = {"courses", "courseVersions"}, key = "#courseId")
     public Course updateCourse(Integer courseId, Course updatedCourse) {
         Course existing = getCourseById(courseId);
+        Set<String> tags = CourseCacheKeys.tagsOf(existing);
 
         if (updatedCourse.getName() != null && !updatedCourse.getName().isBlank())
             existing.setName(updatedCourse.getName());
@@ -122,14 +211,30 @@ public class CourseService {
         }
 
         Course saved = courseRepository.save(existing);
+        facetIndex.index(saved);
+        tags.addAll(CourseCacheKeys.tagsOf(saved));
+        cacheKeys.invalidate(tags);
+        if (updatedCourse.getUnits() != null) cacheKeys.invalidateUnits(List.of(courseId));
         logger.info("Updated course: {} (id={})", saved.getName(), saved.getId());
         return saved;
     }
 
-    @CacheEvict(value = {"courses", "coursesList"}, allEntries = true)
+    @CacheEvict(value = {"courses", "courseVersions"}, key = "#courseId")
     public Course patchCourse(Integer courseId, Map<String, Object> updates) {
         Course course = getCourseById(courseId);
+        Set<String> tags = CourseCacheKeys.tagsOf(course);
+
+        applyPatch(course, updates);
+
+        Course saved = courseRepository.save(course);
+        facetIndex.index(saved);
+        tags.addAll(CourseCacheKeys.tagsOf(saved));
+        cacheKeys.invalidate(tags);
+        logger.info("Patched course: {} (id={})", saved.getName(), saved.getId());
+        return saved;
+    }
 
+    private static void applyPatch(Course course, Map<String, Object> updates) {
         updates.forEach((key, value) -> {
             switch (key) {
                 case "name" -> course.setName((String) value);
@@ -139,7 +244,7 @@ public class CourseService {
                         course.setSubject(list.stream()
                                 .map(Object::toString)
                                 .map(s -> Subject.valueOf(s.toUpperCase()))
-                                .toList());
+                                .collect(Collectors.toList()));
                     }
                 }
                 case "board" -> {
@@ -152,7 +257,7 @@ public class CourseService {
                         course.setMedium(list.stream()
                                 .map(Object::toString)
                                 .map(m -> Medium.valueOf(m.toUpperCase()))
-                                .toList());
+                                .collect(Collectors.toList()));
                     }
                 }
                 case "grade" -> {
@@ -160,19 +265,84 @@ public class CourseService {
                         course.setGrade(list.stream()
                                 .map(Object::toString)
                                 .map(g -> Grade.valueOf(g.toUpperCase()))
-                                .toList());
+                                .collect(Collectors.toList()));
                     }
                 }
             }
         });
+    }
 
+    static final int MAX_BULK_PATCHES = 1000;
+
+    public record BulkPatchResult(int courses, int units) {}
+
+    // PATCH /api/courses: all patches in one transaction. The rows are loaded with one IN query
+    // per table and written back as batched UPDATEs (hibernate.jdbc.batch_size/order_updates);
+    // after commit the "courses" entries go in one DEL and coursesList generations in one bump,
+    // instead of one eviction round per course.
+    public BulkPatchResult patchInBulk(List<Map<String, Object>> coursePatches, List<Map<String, Object>> unitPatches) {
+        List<Map<String, Object>> courses = coursePatches == null ? List.of() : coursePatches;
+        List<Map<String, Object>> units = unitPatches == null ? List.of() : unitPatches;
+        if (courses.isEmpty() && units.isEmpty())
+            throw new BadRequestException("No patches given");
+        if (courses.size() + units.size() > MAX_BULK_PATCHES)
+            throw new BadRequestException("At most " + MAX_BULK_PATCHES + " patches per request");
+
+        Set<String> tags = new HashSet<>();
+        Set<Integer> unitCourseIds = new HashSet<>();
+        List<Course> patched = transactionTemplate.execute(status -> {
+            Map<Integer, Course> byId = new HashMap<>();
+            courseRepository.findAllById(patchIds(courses, "Course")).forEach(c -> byId.put(c.getId(), c));
+            for (Map<String, Object> patch : courses) {
+                Course course = byId.get((Integer) patch.get("id"));
+                if (course == null) throw new NotFoundException("Course not found with id: " + patch.get("id"));
+                tags.addAll(CourseCacheKeys.tagsOf(course));
+                try {
+                    applyPatch(course, patch);
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    throw new BadRequestException("Course " + course.getId() + ": " + e.getMessage());
+                }
+                tags.addAll(CourseCacheKeys.tagsOf(course));
+            }
 
-        Course saved = courseRepository.save(course);
-        logger.info("Patched course: {} (id={})", saved.getName(), saved.getId());
-        return saved;
+            Map<Integer, Unit> unitsById = new HashMap<>();
+            unitRepository.findAllById(patchIds(units, "Unit")).forEach(u -> unitsById.put(u.getId(), u));
+            for (Map<String, Object> patch : units) {
+                Unit unit = unitsById.get((Integer) patch.get("id"));
+                if (unit == null) throw new NotFoundException("Unit not found with id: " + patch.get("id"));
+                try {
+                    UnitService.applyPatch(unit, patch);
+                } catch (ClassCastException e) {
+                    throw new BadRequestException("Unit " + unit.getId() + ": " + e.getMessage());
+                }
+                if (unit.getCourse() != null) unitCourseIds.add(unit.getCourse().getId());
+            }
+            return new ArrayList<>(byId.values());
+        });
+
+        if (!patched.isEmpty()) {
+            facetIndex.indexAll(patched);
+            List<Integer> ids = patched.stream().map(Course::getId).toList();
+            cacheManager.getCache("courses").evictAll(ids);
+            cacheManager.getCache("courseVersions").evictAll(ids);
+            cacheKeys.invalidate(tags);
+        }
+        cacheKeys.invalidateUnits(unitCourseIds);
+        logger.info("Bulk patched {} courses and {} units", patched.size(), units.size());
+        return new BulkPatchResult(patched.size(), units.size());
+    }
+
+    private static Set<Integer> patchIds(List<Map<String, Object>> patches, String type) {
+        Set<Integer> ids = new HashSet<>();
+        for (Map<String, Object> patch : patches) {
+            if (!(patch.get("id") instanceof Integer id))
+                throw new BadRequestException(type + " patch without an integer id: " + patch);
+            ids.add(id);
+        }
+        return ids;
     }
 
-    @CacheEvict(value = {"courses", "coursesList"}, allEntries = true)
+    @CacheEvict(value = {"courses", "courseVersions"}, key = "#courseId")
     public void deleteCourse(Integer courseId) {
         Course course = getCourseById(courseId);
 
@@ -184,57 +354,102 @@ public class CourseService {
         }
 
         courseRepository.delete(course);
+        facetIndex.remove(courseId);
+        cacheKeys.invalidate(CourseCacheKeys.tagsOf(course));
         logger.info("Deleted course: {} (id={})", course.getName(), course.getId());
     }
 
-    public Page<Course> filterSearchSortPageable(String board, String medium,String subject, String grade,
-                                                 String search, String orderBy, String direction,
+    public Page<Course> filterSearchSortPageable(String listKey, String board, String medium,String subject,
+                                                 String grade, String search, String orderBy, String direction,
                                                  Pageable pageable) {
+        CourseIdPage page = courseListService.findPage(listKey, board, medium, subject, grade, search, direction,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        List<Integer> ids = Arrays.stream(page.ids()).boxed().toList();
+        return new PageImpl<>(getCoursesByIds(ids), pageable, page.totalElements());
+    }
+
+    // Same page as filterSearchSortPageable, as summaries (see CourseSummary) instead of entities.
+    public Page<CourseSummary> filterSearchSortSummaries(String listKey, String board, String medium, String subject,
+                                                         String grade, String search, String direction,
+                                                         boolean withDescription, Pageable pageable) {
+        CourseIdPage page = courseListService.findPage(listKey, board, medium, subject, grade, search, direction,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        List<Integer> ids = Arrays.stream(page.ids()).boxed().toList();
+        return new PageImpl<>(getCourseSummaries(ids, withDescription), pageable, page.totalElements());
+    }
 
-        // Cache the filtered list instead of Page object to avoid serialization issues with PageImpl
-        List<Course> filtered = getFilteredCoursesList(board, medium, subject, grade, search, direction);
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filtered.size());
-        List<Course> pageContent = start >= filtered.size() ? List.of() : filtered.subList(start, end);
-
-        return new PageImpl<>(pageContent, pageable, filtered.size());
-    }
-
-    @Cacheable(value = "coursesList", key = "#root.methodName + '_' + #board + '_' + #medium + '_' + #subject + '_' + #grade + '_' + #search + '_' + #direction")
-    public List<Course> getFilteredCoursesList(String board, String medium, String subject, String grade,
-                                                String search, String direction) {
-        List<Course> allCourses = courseRepository.findAll();
-
-        List<Course> filtered = allCourses.stream()
-                .filter(c -> board == null || board.isBlank() )
-                .filter(c -> {
-                    if (medium == null || medium.isBlank()) return true;
-                    return c.getMedium() != null && c.getMedium().stream()
-                            .anyMatch(m -> m.toString().equalsIgnoreCase(medium));
-                })
-                .filter(c -> {
-                    if (subject == null || subject.isBlank()) return true;
-                    return c.getSubject() != null && c.getSubject().stream()
-                            .anyMatch(s -> s.toString().equalsIgnoreCase(subject));
-                })
-                .filter(c -> {
-                    if (grade == null || grade.isBlank()) return true;
-                    return c.getGrade() != null && c.getGrade().stream()
-                            .anyMatch(g -> g.toString().equalsIgnoreCase(grade));
-                })
-                .filter(c -> {
-                    if (search == null || search.isBlank()) return true;
-                    String s = search.toLowerCase();
-                    return (c.getName() != null && c.getName().toLowerCase().contains(s))
-                            || (c.getDescription() != null && c.getDescription().toLowerCase().contains(s));
-                })
-                .collect(Collectors.toList());
-
-        Comparator<Course> comparator = Comparator.comparing(Course::getName, String.CASE_INSENSITIVE_ORDER);
-        if ("desc".equalsIgnoreCase(direction)) comparator = comparator.reversed();
-        filtered.sort(comparator);
-
-        return filtered;
-    }
-}
\ No newline at end of file
+    // One query for the whole page, returned in the order of ids.
+    public List<CourseSummary> getCourseSummaries(List<Integer> ids, boolean withDescription) {
+        if (ids.isEmpty()) return List.of();
+        Map<Integer, CourseSummary> byId = new HashMap<>();
+        courseRepository.findSummaries(ids, withDescription ? CourseSummary.DESCRIPTION_PREVIEW_LENGTH : 0)
+                .forEach(s -> byId.put(s.id(), s));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    // One ?after= page and the cursor of the page after it (null on the last page)
+    public record SeekPage<T>(List<T> content, String nextCursor) {}
+
+    // Ids of a seek page; lastRank is set when it was a full-text search
+    private record IdSlice(List<Integer> ids, boolean hasNext, Float lastRank) {}
+
+    // Seek pagination: no OFFSET and no count query, one extra row tells us whether
+    // there is a next page.
+    public SeekPage<Course> filterSearchSortAfter(String board, String medium, String subject, String grade,
+                                                  String search, String direction, String after, int size) {
+        IdSlice ids = findIdsAfter(board, medium, subject, grade, search, direction, after, size);
+        List<Course> content = getCoursesByIds(ids.ids());
+        return new SeekPage<>(content, nextCursor(ids, content, PageCursor::ofCourse));
+    }
+
+    public SeekPage<CourseSummary> filterSearchSortSummariesAfter(String board, String medium, String subject,
+                                                                  String grade, String search, String direction,
+                                                                  String after, int size, boolean withDescription) {
+        IdSlice ids = findIdsAfter(board, medium, subject, grade, search, direction, after, size);
+        List<CourseSummary> content = getCourseSummaries(ids.ids(), withDescription);
+        return new SeekPage<>(content, nextCursor(ids, content, PageCursor::ofSummary));
+    }
+
+    // A search term seeks through the same ranked full-text query as the offset pages
+    // (CourseListService), otherwise by name.
+    private IdSlice findIdsAfter(String board, String medium, String subject, String grade,
+                                 String search, String direction, String after, int size) {
+        if (size < 1) throw new BadRequestException("Size must be at least 1");
+        PageCursor cursor = PageCursor.decode(after);
+        if (search != null && !search.isBlank()) {
+            List<SearchService.RankedId> rows = searchService.searchCourseIdsAfter(
+                    board, medium, subject, grade, search, cursor, size + 1);
+            boolean hasNext = rows.size() > size;
+            List<SearchService.RankedId> page = hasNext ? rows.subList(0, size) : rows;
+            return new IdSlice(page.stream().map(SearchService.RankedId::id).toList(), hasNext,
+                    page.isEmpty() ? null : page.get(page.size() - 1).rank());
+        }
+        Specification<Course> spec = CourseSpecifications.filter(board, medium, subject, grade)
+                .and(CourseSpecifications.seekAfter(cursor, direction));
+        List<Integer> rows = courseRepository.findIds(spec, CourseSpecifications.nameOrder(direction), 0, size + 1);
+        boolean hasNext = rows.size() > size;
+        return new IdSlice(hasNext ? rows.subList(0, size) : rows, hasNext, null);
+    }
+
+    // Ranked pages continue from the last id's rank; name pages from the last loaded row's name
+    private static <T> String nextCursor(IdSlice ids, List<T> content, Function<T, PageCursor> cursorOf) {
+        if (!ids.hasNext()) return null;
+        if (ids.lastRank() != null) return PageCursor.ofRank(ids.ids().get(ids.ids().size() - 1), ids.lastRank()).encode();
+        return content.isEmpty() ? null : cursorOf.apply(content.get(content.size() - 1)).encode();
+    }
+
+    // Counts per Board/Medium/Subject/Grade value for the current filter and search,
+    // computed from the facet index in one pass instead of one filtered query per facet.
+    public Map<String, Object> getFacetCounts(String board, String medium, String subject, String grade,
+                                              String search) {
+        if (!facetIndex.isReady()) facetIndex.ensureReady();
+
+        BitSet within = search == null || search.isBlank() ? null : searchService.matchingCourseIds(search);
+
+        Map<String, Object> result = new LinkedHashMap<>(facetIndex.counts(board, medium, subject, grade, within));
+        BitSet matching = facetIndex.match(board, medium, subject, grade);
+        if (within != null) matching.and(within);
+        result.put("total", matching.cardinality());
+        return result;
+    }
+}
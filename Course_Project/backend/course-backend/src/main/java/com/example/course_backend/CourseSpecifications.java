@@ -0,0 +1,89 @@
+package com.example.course_backend;
+
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Builds the WHERE clause and ORDER BY for the course list so filtering, sorting
+// and LIMIT/OFFSET all run in Postgres instead of on a findAll() result.
+public final class CourseSpecifications {
+
+    private CourseSpecifications() {
+    }
+
+    // Facets only: a search term goes through the ranked full-text query (SearchService)
+    public static Specification<Course> filter(String board, String medium, String subject, String grade) {
+        return Specification.allOf(
+                hasBoard(board),
+                hasAny("medium", Medium.class, medium),
+                hasAny("subject", Subject.class, subject),
+                hasAny("grade", Grade.class, grade)
+        );
+    }
+
+    // Case-insensitive name order with id as tie breaker, so pages are stable
+    // even when two courses share the same name.
+    public static Sort nameOrder(String direction) {
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(new Sort.Order(dir, "name").ignoreCase(), new Sort.Order(dir, "id"));
+    }
+
+    // Keyset predicate matching nameOrder(direction): rows strictly after the cursor
+    // in (lower(name), id) order, so deep pages cost the same as the first one.
+    public static Specification<Course> seekAfter(PageCursor cursor, String direction) {
+        if (cursor == null) return null;
+        if (cursor.id() == null || cursor.name() == null)
+            throw new BadRequestException("Invalid course cursor");
+        boolean desc = "desc".equalsIgnoreCase(direction);
+        return (root, query, cb) -> {
+            Expression<String> name = cb.lower(root.get("name"));
+            Expression<String> cursorName = cb.lower(cb.literal(cursor.name()));
+            Expression<Integer> id = root.get("id");
+            return desc
+                    ? cb.or(cb.lessThan(name, cursorName),
+                            cb.and(cb.equal(name, cursorName), cb.lessThan(id, cursor.id())))
+                    : cb.or(cb.greaterThan(name, cursorName),
+                            cb.and(cb.equal(name, cursorName), cb.greaterThan(id, cursor.id())));
+        };
+    }
+
+    public static Specification<Course> hasBoard(String board) {
+        if (board == null || board.isBlank()) return null;
+        List<Board> boards = parseAll(Board.class, board);
+        return (root, query, cb) -> boards.isEmpty()
+                ? cb.disjunction()
+                : root.get("board").in(boards);
+    }
+
+    // Comma separated values are OR-ed, e.g. medium=ENGLISH,HINDI, as one && overlap on the
+    // GIN indexed array column. Unknown values simply match nothing, like the old in-memory filter did.
+    public static <E extends Enum<E>> Specification<Course> hasAny(String attribute, Class<E> type, String values) {
+        if (values == null || values.isBlank()) return null;
+        List<E> parsed = parseAll(type, values);
+        String names = parsed.stream().map(Enum::name).collect(Collectors.joining(","));
+        return (root, query, cb) -> parsed.isEmpty()
+                ? cb.disjunction()
+                : cb.isTrue(cb.function("text_array_overlaps", Boolean.class, root.get(attribute), cb.literal(names)));
+    }
+
+    static <E extends Enum<E>> List<E> parseAll(Class<E> type, String values) {
+        List<E> parsed = new ArrayList<>();
+        Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .forEach(v -> {
+                    try {
+                        E value = Enum.valueOf(type, v.toUpperCase());
+                        if (!parsed.contains(value)) parsed.add(value);
+                    } catch (IllegalArgumentException ignored) {
+                        // unknown enum value, contributes no match
+                    }
+                });
+        return parsed;
+    }
+}
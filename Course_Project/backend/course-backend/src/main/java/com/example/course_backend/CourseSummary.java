@@ -0,0 +1,58 @@
+package com.example.course_backend;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Lightweight course list item for GET /api/courses?fields=...: no units, just their count,
+// and the description only as a short preview when it is asked for. Filled by
+// CourseRepository.findSummaries in one constructor-expression query.
+public record CourseSummary(Integer id, String name, Board board, List<Subject> subject, List<Medium> medium,
+                            List<Grade> grade, Long unitCount, String description) {
+
+    static final int DESCRIPTION_PREVIEW_LENGTH = 200;
+
+    static final List<String> FIELDS =
+            List.of("id", "name", "description", "board", "subject", "medium", "grade", "unitCount");
+
+    // fields=summary: everything except the description
+    static final String SUMMARY = "summary";
+
+    // Comma separated subset of FIELDS, or "summary". Keeps the order the client asked for.
+    public static Set<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (SUMMARY.equals(name)) {
+                FIELDS.stream().filter(f -> !f.equals("description")).forEach(selected::add);
+            } else if (FIELDS.contains(name)) {
+                selected.add(name);
+            } else {
+                throw new BadRequestException("Unknown field: " + name + ", expected one of "
+                        + String.join(", ", FIELDS) + " or " + SUMMARY);
+            }
+        }
+        if (selected.isEmpty()) throw new BadRequestException("fields must name at least one field");
+        return selected;
+    }
+
+    public Map<String, Object> select(Set<String> fields) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> item.put(field, id);
+                case "name" -> item.put(field, name);
+                case "description" -> item.put(field, description);
+                case "board" -> item.put(field, board);
+                case "subject" -> item.put(field, subject);
+                case "medium" -> item.put(field, medium);
+                case "grade" -> item.put(field, grade);
+                case "unitCount" -> item.put(field, unitCount);
+            }
+        }
+        return item;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.course_backend;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import java.util.List;
 
+// Ten sample courses for an empty database; the "synthetic" profile seeds a large catalog
+// instead (SyntheticDataSeeder).
 @Component
+@Profile("!synthetic")
 public class DataSeeder implements CommandLineRunner {
 
     private final CourseRepository courseRepository;
@@ -22,7 +26,7 @@ public class DataSeeder implements CommandLineRunner {
             System.out.println("🌱 [DataSeeder] No courses found. Seeding sample data...");
 
             List<Course> courses = List.of(
-                    new Course(null,
+                    new Course(null, null,
                             "Mathematics Basics",
                             "Covers numbers, addition, subtraction and multiplication.",
                             Board.CBSE,
@@ -31,7 +35,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_1),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Science Starter",
                             "Introduction to physics, chemistry, and biology concepts.",
                             Board.STATE,
@@ -40,7 +44,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_2),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "English Grammar Essentials",
                             "Learn basic grammar, tenses, and sentence structure.",
                             Board.ICSE,
@@ -49,7 +53,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_3),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "History and Geography",
                             "Explore ancient civilizations and Indian geography.",
                             Board.STATE,
@@ -58,7 +62,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_4, Grade.CLASS_5),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Hindi Literature",
                             "Enhance Hindi reading and writing with stories and poems.",
                             Board.ICSE,
@@ -67,7 +71,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_5, Grade.CLASS_6),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Kannada Language",
                             "Learn Kannada grammar and vocabulary through simple lessons.",
                             Board.STATE,
@@ -76,7 +80,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_2, Grade.CLASS_3),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Environmental Studies",
                             "Learn about nature, seasons, and environmental care.",
                             Board.CBSE,
@@ -85,7 +89,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_1, Grade.CLASS_2),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Geometry Fundamentals",
                             "Understand lines, angles, shapes, and basic geometry terms.",
                             Board.ICSE,
@@ -94,7 +98,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_6),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Physics Essentials",
                             "Covers motion, force, and simple machines with examples.",
                             Board.STATE,
@@ -103,7 +107,7 @@ public class DataSeeder implements CommandLineRunner {
                             List.of(Grade.CLASS_7, Grade.CLASS_8),
                             null),
 
-                    new Course(null,
+                    new Course(null, null,
                             "Civics and Economics",
                             "Basic introduction to governance, rights, and money systems.",
                             Board.CBSE,
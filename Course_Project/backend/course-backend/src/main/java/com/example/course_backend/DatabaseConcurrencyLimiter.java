@@ -0,0 +1,119 @@
+package com.example.course_backend;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Caps how many threads hold a database connection at once (db.limiter.max-concurrent) and
+// how long the others queue for one (db.limiter.max-wait). With virtual threads every request
+// has its own thread, so thousands of them can reach the pool together; they wait here in
+// arrival order and, past max-wait, fail fast with a 503 (GlobalExceptionHandler) instead of
+// piling up until Hikari's connection-timeout. A permit is held from getConnection until the
+// connection is closed, i.e. handed back to the pool. Only request threads are limited:
+// startup work (facet index, seeding) and background threads must not fail because traffic
+// took every permit, so max-concurrent should leave some of the pool to them.
+@Component
+@ConditionalOnProperty(name = "db.limiter.enabled", havingValue = "true")
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor {
+
+    private final int maxConcurrent;
+    private final Duration maxWait;
+
+    public DatabaseConcurrencyLimiter(@Value("${db.limiter.max-concurrent:10}") int maxConcurrent,
+                                      @Value("${db.limiter.max-wait:2s}") Duration maxWait) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            return new LimitedDataSource(dataSource, new Semaphore(maxConcurrent, true), maxWait);
+        }
+        return bean;
+    }
+
+    static class LimitedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final Duration maxWait;
+
+        LimitedDataSource(DataSource target, Semaphore permits, Duration maxWait) {
+            super(target);
+            this.permits = permits;
+            this.maxWait = maxWait;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (RequestContextHolder.getRequestAttributes() == null) return super.getConnection();
+            acquire();
+            return limited(super::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            if (RequestContextHolder.getRequestAttributes() == null) return super.getConnection(username, password);
+            acquire();
+            return limited(() -> super.getConnection(username, password));
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException(
+                            "Database busy: no connection permit within " + maxWait.toMillis() + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a connection permit", e);
+            }
+        }
+
+        private interface ConnectionSupplier {
+            Connection get() throws SQLException;
+        }
+
+        // The permit goes back with the first close(); a failed getConnection returns it at once
+        private Connection limited(ConnectionSupplier supplier) throws SQLException {
+            Connection connection;
+            try {
+                connection = supplier.get();
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.course_backend;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Strong ETags for conditional GETs. Controllers build them from version numbers before
+// loading anything, so a matching If-None-Match costs a version lookup and no body.
+public class ETagUtil {
+
+    // Hash of the parts, quoted; parts include everything that selects the representation
+    public static String of(Object... parts) {
+        String joined = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // true when the client's copy is current: the response is then a bodyless 304 and the
+    // handler returns null. The ETag header is set either way; no-cache lets clients and CDNs
+    // store the body but revalidate it before each use.
+    public static boolean checkNotModified(ServletWebRequest request, String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.course_backend;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Same idea as StringListConverter, but the list is stored as a Postgres text[] on the
+// course row (GIN indexed, see schema.sql) instead of a comma separated string, so
+// membership filters can use the array operators. JPA needs one concrete converter per
+// enum, hence the small subclasses.
+public abstract class EnumListConverter<E extends Enum<E>> implements AttributeConverter<List<E>, String[]> {
+
+    private final Class<E> type;
+
+    protected EnumListConverter(Class<E> type) {
+        this.type = type;
+    }
+
+    @Override
+    public String[] convertToDatabaseColumn(List<E> list) {
+        if (list == null) return null;
+        return list.stream().map(Enum::name).toArray(String[]::new);
+    }
+
+    @Override
+    public List<E> convertToEntityAttribute(String[] dbData) {
+        List<E> values = new ArrayList<>();
+        if (dbData == null) return values;
+        Arrays.stream(dbData).map(v -> Enum.valueOf(type, v)).forEach(values::add);
+        return values;
+    }
+
+    @Converter
+    public static class Subjects extends EnumListConverter<Subject> {
+        public Subjects() {
+            super(Subject.class);
+        }
+    }
+
+    @Converter
+    public static class Mediums extends EnumListConverter<Medium> {
+        public Mediums() {
+            super(Medium.class);
+        }
+    }
+
+    @Converter
+    public static class Grades extends EnumListConverter<Grade> {
+        public Grades() {
+            super(Grade.class);
+        }
+    }
+}
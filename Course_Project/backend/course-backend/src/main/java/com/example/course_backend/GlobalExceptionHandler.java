@@ -3,8 +3,13 @@ package com.example.course_backend;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
@@ -21,7 +26,8 @@ public class GlobalExceptionHandler {
     // 400 - Bad Request
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiResponse<Map<String, Object>>> handleBadRequest(BadRequestException ex) {
-        logger.error("BadRequestException: ", ex);
+        // client errors: one line, no stack trace
+        logger.warn("Bad request: {}", ex.getMessage());
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(ResponseUtil.failureWithData("api.error", "400", ex.getMessage()));
@@ -30,7 +36,7 @@ public class GlobalExceptionHandler {
     // 404 - Not Found (custom entity not found)
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiResponse<Map<String, Object>>> handleNotFound(NotFoundException ex) {
-        logger.error("NotFoundException: ", ex);
+        logger.warn("Not found: {}", ex.getMessage());
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(ResponseUtil.failureWithData("api.error", "404", ex.getMessage()));
@@ -39,8 +45,8 @@ public class GlobalExceptionHandler {
     // 404 - No Handler Found (invalid endpoint)
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ApiResponse<Map<String, Object>>> handleNoHandlerFound(NoHandlerFoundException ex) {
-        logger.error("NoHandlerFoundException: ", ex);
         String message = String.format("No endpoint found for %s %s", ex.getHttpMethod(), ex.getRequestURL());
+        logger.warn(message);
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(ResponseUtil.failureWithData("api.error.notfound", "404", message));
@@ -53,12 +59,32 @@ public class GlobalExceptionHandler {
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             errors.put(error.getField(), error.getDefaultMessage());
         }
-        logger.error("Validation failed: {}", errors);
+        logger.warn("Validation failed: {}", errors);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(ResponseUtil.failureWithData("api.error.validation", "400", errors.toString()));
     }
 
+    // 409 - The row changed (@Version) since the copy being written was read
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> handleConflict(OptimisticLockingFailureException ex) {
+        logger.warn("Conflict: {}", NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ResponseUtil.failureWithData("api.error", "409",
+                        "The resource was modified concurrently, please retry"));
+    }
+
+    // 503 - No database (DatabaseConcurrencyLimiter, pool timeout) or Redis connection in time
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponse<Map<String, Object>>> handleUnavailable(Exception ex) {
+        logger.warn("Service unavailable: {}", NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ResponseUtil.failureWithData("api.error", "503", "Service is busy, please retry"));
+    }
+
     // 500 - Other unhandled exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Map<String, Object>>> handleException(Exception ex) {
@@ -0,0 +1,55 @@
+package com.example.course_backend;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor handed to clients as ?after=<cursor>.
+// Courses seek on (lower(name), id), searched courses on (rank, id), units on id alone.
+public record PageCursor(Integer id, String name, Float rank) {
+
+    public PageCursor(Integer id, String name) {
+        this(id, name, null);
+    }
+
+    public static PageCursor ofCourse(Course course) {
+        return new PageCursor(course.getId(), course.getName());
+    }
+
+    public static PageCursor ofSummary(CourseSummary summary) {
+        return new PageCursor(summary.id(), summary.name());
+    }
+
+    public static PageCursor ofUnit(Unit unit) {
+        return new PageCursor(unit.getId(), null);
+    }
+
+    // The ts_rank of the row as Postgres returned it; Float.toString round-trips it exactly,
+    // so the seek compares equal ranks as equal.
+    public static PageCursor ofRank(Integer id, float rank) {
+        return new PageCursor(id, null, rank);
+    }
+
+    public String encode() {
+        String raw = name != null ? id + "|" + name
+                : rank != null ? id + "~" + rank
+                : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // An empty cursor means "start from the first row".
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep >= 0) return new PageCursor(Integer.valueOf(raw.substring(0, sep)), raw.substring(sep + 1));
+            sep = raw.indexOf('~');
+            if (sep < 0) return new PageCursor(Integer.valueOf(raw), null);
+            float rank = Float.parseFloat(raw.substring(sep + 1));
+            if (!Float.isFinite(rank)) throw new IllegalArgumentException("rank");
+            return ofRank(Integer.valueOf(raw.substring(0, sep)), rank);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
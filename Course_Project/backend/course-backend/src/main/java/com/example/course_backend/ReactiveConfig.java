@@ -0,0 +1,62 @@
+package com.example.course_backend;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// R2DBC for the non-blocking read API (ReactiveCourseService). Connects to the database of
+// spring.datasource.url unless spring.r2dbc.url is set, so deployments need no extra settings;
+// pool size and idle time come from spring.r2dbc.pool.*.
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties r2dbc, DataSourceProperties jdbc) {
+        String url = r2dbc.getUrl() != null ? r2dbc.getUrl() : jdbc.getUrl().replaceFirst("^jdbc:", "r2dbc:");
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, r2dbc.getUsername() != null ? r2dbc.getUsername() : jdbc.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, r2dbc.getPassword() != null ? r2dbc.getPassword() : jdbc.getPassword())
+                .build();
+        ConnectionFactory connections = ConnectionFactories.get(options);
+
+        R2dbcProperties.Pool pool = r2dbc.getPool();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connections)
+                .name("reactive")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    // Spring Boot's DataSource auto-configuration backs off once there is a ConnectionFactory,
+    // so the JDBC pool for JPA is declared here, built the same way from spring.datasource.*
+    // and spring.datasource.hikari.*.
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // With a ConnectionFactory around, Spring Boot would run schema.sql over R2DBC, before
+    // Hibernate has created the tables. Declaring the JDBC initializer keeps it on the
+    // DataSource, after ddl-auto (spring.jpa.defer-datasource-initialization).
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource,
+                                                                                      SqlInitializationProperties properties) {
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.course_backend;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read-only twins of GET /api/courses, /api/courses/{id} and /api/courses/{id}/units on the
+// non-blocking stack (ReactiveCourseService). Spring MVC subscribes to the returned Mono/Flux
+// and completes the response asynchronously, so the request thread goes back to the pool
+// while the database or Redis answers. With Accept: application/x-ndjson the lists come as
+// one JSON object per line, written as the rows arrive and without the envelope or totals.
+@RestController
+@RequestMapping("/api/reactive/courses")
+public class ReactiveCourseController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ReactiveCourseService reactiveCourseService;
+
+    public ReactiveCourseController(ReactiveCourseService reactiveCourseService) {
+        this.reactiveCourseService = reactiveCourseService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<Map<String, Object>>>> getAllCourses(
+            @RequestParam(required = false) String board,
+            @RequestParam(required = false) String medium,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String grade,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "6") int size,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        return Mono.zip(
+                reactiveCourseService.findCourses(board, medium, subject, grade, search, direction, page, size)
+                        .collectList(),
+                reactiveCourseService.countCourses(board, medium, subject, grade, search)
+        ).map(pageAndTotal -> ResponseEntity.ok(ResponseUtil.successWithData("api.course.getAll",
+                pageResult("Courses", "No courses found", pageAndTotal.getT1(), pageAndTotal.getT2(), page, size))));
+    }
+
+    @GetMapping(produces = NDJSON)
+    public Flux<Course> streamCourses(
+            @RequestParam(required = false) String board,
+            @RequestParam(required = false) String medium,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String grade,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "6") int size,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        return reactiveCourseService.findCourses(board, medium, subject, grade, search, direction, page, size);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<Map<String, Object>>>> getCourseById(@PathVariable Integer id) {
+        return reactiveCourseService.getCourse(id)
+                .map(course -> ResponseEntity.ok(ResponseUtil.successWithData("api.course.getById",
+                        Map.of("message", "Course fetched successfully", "data", course))));
+    }
+
+    @GetMapping("/{courseId}/units")
+    public Mono<ResponseEntity<ApiResponse<Map<String, Object>>>> getUnitsByCourse(
+            @PathVariable Integer courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return Mono.zip(
+                reactiveCourseService.findUnits(courseId, page, size).collectList(),
+                reactiveCourseService.countUnits(courseId)
+        ).map(pageAndTotal -> ResponseEntity.ok(ResponseUtil.successWithData("api.unit.getAll",
+                pageResult("Units", "No units found", pageAndTotal.getT1(), pageAndTotal.getT2(), page, size))));
+    }
+
+    @GetMapping(value = "/{courseId}/units", produces = NDJSON)
+    public Flux<Unit> streamUnitsByCourse(
+            @PathVariable Integer courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return reactiveCourseService.findUnits(courseId, page, size);
+    }
+
+    // Same keys as the blocking list endpoints
+    private static Map<String, Object> pageResult(String what, String emptyMessage, List<?> content,
+                                                  long total, int page, int size) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", content.isEmpty() ? emptyMessage : what + " fetched successfully");
+        result.put("data", content);
+        result.put("totalPages", (int) ((total + size - 1) / size));
+        result.put("totalElements", total);
+        result.put("currentPage", page);
+        return result;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.course_backend;
+
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+// Non-blocking reads behind /api/reactive/courses: R2DBC queries and reactive Redis, so no
+// thread waits on the database or Redis and rows are handed on as they arrive. Filters, order
+// and paging match the blocking GET /api/courses, and single courses go through the same
+// "courses" cache entries (L1, then Redis, then the database). Writes and evictions stay in
+// CourseService.
+@Service
+public class ReactiveCourseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCourseService.class);
+
+    private static final String COURSE_COLUMNS = "c.id, c.version, c.name, c.description, c.board, c.subject, c.medium, c.grade";
+
+    // Facet params as in CourseRepository.TEXT_SEARCH_WHERE: comma separated names, '' for any
+    private static final String FACET_WHERE = """
+            (:boards = '' or c.board = any(string_to_array(:boards, ',')))
+              and (:mediums = '' or c.medium && string_to_array(:mediums, ','))
+              and (:subjects = '' or c.subject && string_to_array(:subjects, ','))
+              and (:grades = '' or c.grade && string_to_array(:grades, ','))
+            """;
+
+    private record Facets(String boards, String mediums, String subjects, String grades) {
+
+        // null when a filter was given but none of its values exists, i.e. nothing can match
+        static Facets of(String board, String medium, String subject, String grade) {
+            String boards = SearchService.facetParam(Board.class, board);
+            String mediums = SearchService.facetParam(Medium.class, medium);
+            String subjects = SearchService.facetParam(Subject.class, subject);
+            String grades = SearchService.facetParam(Grade.class, grade);
+            if (boards == null || mediums == null || subjects == null || grades == null) return null;
+            return new Facets(boards, mediums, subjects, grades);
+        }
+
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            return spec.bind("boards", boards).bind("mediums", mediums)
+                    .bind("subjects", subjects).bind("grades", grades);
+        }
+    }
+
+    private final DatabaseClient db;
+    private final ReactiveRedisTemplate<String, Object> cacheRedisTemplate;
+    private final TwoLevelCacheManager cacheManager;
+
+    public ReactiveCourseService(DatabaseClient db, ReactiveRedisTemplate<String, Object> cacheRedisTemplate,
+                                 TwoLevelCacheManager cacheManager) {
+        this.db = db;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    public Mono<Course> getCourse(Integer id) {
+        TwoLevelCache cache = cacheManager.getCache("courses");
+        CacheEntry local = cache.getLocal(id);
+        if (local != null && !local.isStale()) return Mono.just((Course) local.value());
+
+        String key = "courses::" + TwoLevelCache.localKey(id);
+        return cacheRedisTemplate.opsForValue().get(key)
+                // an entry in an older value format is a miss and gets overwritten, as in TwoLevelCache
+                .onErrorResume(SerializationException.class, e -> {
+                    logger.warn("Dropping unreadable cache entry {}", key, e);
+                    return Mono.empty();
+                })
+                .map(cacheManager::unwrap)
+                .filter(entry -> !entry.isStale())
+                .doOnNext(entry -> cache.putLocal(id, entry))
+                .map(entry -> (Course) entry.value())
+                .switchIfEmpty(Mono.defer(() -> db.sql("select " + COURSE_COLUMNS + " from course c where c.id = :id")
+                        .bind("id", id)
+                        .map(ReactiveCourseService::toCourse)
+                        .one()
+                        // as @Cacheable does on a miss; a failed write only costs the next reader a query
+                        .flatMap(course -> cacheRedisTemplate.opsForValue()
+                                .set(key, cacheManager.wrap(course), RedisConfig.CACHE_TTL)
+                                .onErrorReturn(false)
+                                .thenReturn(course))))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Course not found with id: " + id)));
+    }
+
+    // One page in name order, or by relevance when search is given (full-text, as SearchService)
+    public Flux<Course> findCourses(String board, String medium, String subject, String grade, String search,
+                                    String direction, int page, int size) {
+        checkPage(page, size);
+        Facets facets = Facets.of(board, medium, subject, grade);
+        if (facets == null) return Flux.empty();
+
+        String query = SearchService.toTsQuery(search);
+        DatabaseClient.GenericExecuteSpec spec;
+        if (query != null) {
+            spec = db.sql("select " + COURSE_COLUMNS + " " + CourseRepository.TEXT_SEARCH_WHERE +
+                            "order by ts_rank(c.search_vector, to_tsquery('english', :query)) desc, c.id " +
+                            "limit :limit offset :offset")
+                    .bind("query", query);
+        } else {
+            String dir = "desc".equalsIgnoreCase(direction) ? "desc" : "asc";
+            spec = db.sql("select " + COURSE_COLUMNS + " from course c where " + FACET_WHERE +
+                    "order by lower(c.name) " + dir + ", c.id " + dir + " limit :limit offset :offset");
+        }
+        return facets.bind(spec)
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveCourseService::toCourse)
+                .all();
+    }
+
+    public Mono<Long> countCourses(String board, String medium, String subject, String grade, String search) {
+        Facets facets = Facets.of(board, medium, subject, grade);
+        if (facets == null) return Mono.just(0L);
+
+        // Counted in the database, like the blocking list's totals (see CourseListService)
+        String query = SearchService.toTsQuery(search);
+        DatabaseClient.GenericExecuteSpec spec = query != null
+                ? db.sql("select count(*) " + CourseRepository.TEXT_SEARCH_WHERE).bind("query", query)
+                : db.sql("select count(*) from course c where " + FACET_WHERE);
+        return facets.bind(spec).map(row -> row.get(0, Long.class)).one();
+    }
+
+    // In id order, i.e. the order units were added
+    public Flux<Unit> findUnits(Integer courseId, int page, int size) {
+        checkPage(page, size);
+        return requireCourse(courseId).thenMany(
+                db.sql("select u.id, u.version, u.title, u.content from unit u where u.course_id = :courseId " +
+                                "order by u.id limit :limit offset :offset")
+                        .bind("courseId", courseId)
+                        .bind("limit", size)
+                        .bind("offset", (long) page * size)
+                        .map(row -> {
+                            Unit unit = new Unit();
+                            unit.setId(row.get("id", Integer.class));
+                            unit.setVersion(row.get("version", Integer.class));
+                            unit.setTitle(row.get("title", String.class));
+                            unit.setContent(row.get("content", String.class));
+                            return unit;
+                        })
+                        .all());
+    }
+
+    public Mono<Long> countUnits(Integer courseId) {
+        return db.sql("select count(*) from unit u where u.course_id = :courseId")
+                .bind("courseId", courseId)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private Mono<Void> requireCourse(Integer courseId) {
+        return db.sql("select 1 from course where id = :id")
+                .bind("id", courseId)
+                .map(row -> 1)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Course not found")))
+                .then();
+    }
+
+    private static void checkPage(int page, int size) {
+        if (page < 0) throw new BadRequestException("Page index must not be negative");
+        if (size < 1 || size > 1000) throw new BadRequestException("Page size must be between 1 and 1000");
+    }
+
+    // text[] columns come back as String[] of enum names; units are not loaded, as on the blocking path.
+    // The version must be there: CourseService writes back cached courses, and @Version checks it.
+    private static Course toCourse(Readable row) {
+        Course course = new Course();
+        course.setId(row.get("id", Integer.class));
+        course.setVersion(row.get("version", Integer.class));
+        course.setName(row.get("name", String.class));
+        course.setDescription(row.get("description", String.class));
+        String board = row.get("board", String.class);
+        course.setBoard(board == null ? null : Board.valueOf(board));
+        course.setSubject(enums(row.get("subject", String[].class), Subject::valueOf));
+        course.setMedium(enums(row.get("medium", String[].class), Medium::valueOf));
+        course.setGrade(enums(row.get("grade", String[].class), Grade::valueOf));
+        course.setUnits(null);
+        return course;
+    }
+
+    private static <E> List<E> enums(String[] names, Function<String, E> valueOf) {
+        return names == null ? List.of() : Arrays.stream(names).map(valueOf).toList();
+    }
+}
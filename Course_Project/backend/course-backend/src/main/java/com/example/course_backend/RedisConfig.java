@@ -3,21 +3,32 @@ package com.example.course_backend;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.*;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    // Hard limit for every cache entry in Redis; see cache.soft-ttl for when they are refreshed
+    static final Duration CACHE_TTL = Duration.ofMinutes(30);
+
     @Bean
     public ObjectMapper redisObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -25,6 +36,8 @@ public class RedisConfig {
         // ✅ Handle Hibernate lazy-loading issues safely
         Hibernate5JakartaModule hibernateModule = new Hibernate5JakartaModule();
         hibernateModule.disable(Hibernate5JakartaModule.Feature.FORCE_LAZY_LOADING);
+        // ✅ Write PersistentBag & co. as plain lists so typed cache entries can be read back
+        hibernateModule.enable(Hibernate5JakartaModule.Feature.REPLACE_PERSISTENT_COLLECTIONS);
         mapper.registerModule(hibernateModule);
 
         // ✅ Support Java 8 date/time (Instant, LocalDateTime, etc.)
@@ -49,21 +62,77 @@ public class RedisConfig {
         return template;
     }
 
+    // Format of cache values in Redis, shared by the cache manager and cacheRedisTemplate
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
-                                          ObjectMapper redisObjectMapper) {
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+    public RedisSerializer<Object> cacheValueSerializer(ObjectMapper redisObjectMapper,
+                                                        @Value("${cache.serializer:binary}") String serializerType,
+                                                        @Value("${cache.compression-threshold:1024}") int compressionThreshold) {
+        // ✅ Cached values need type hints to come back as Course/List<Course>, not LinkedHashMap.
+        // Work on a copy: redisObjectMapper is also the MVC mapper and responses must stay clean.
+        RedisSerializer<Object> jsonSerializer = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(redisObjectMapper.copy())
+                .defaultTyping(true)
+                .build();
+        // ✅ Compact binary values (LZ4 above the threshold); JSON stays available and is the fallback
+        return "json".equalsIgnoreCase(serializerType)
+                ? jsonSerializer
+                : new BinaryCacheSerializer(jsonSerializer, compressionThreshold);
+    }
 
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             RedisSerializer<Object> cacheValueSerializer,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             @Value("${cache.local.maximum-size:10000}") long localMaximumSize,
+                                             @Value("${cache.local.expire-after-write:5m}") Duration localTtl,
+                                             @Value("${cache.soft-ttl:0}") Duration softTtl,
+                                             @Value("${cache.lock-ttl:10s}") Duration lockTtl,
+                                             @Value("${cache.lock-wait:3s}") Duration lockWait,
+                                             MeterRegistry meterRegistry) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30)) // set cache TTL (optional)
+                .entryTtl(CACHE_TTL)
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)
+                        RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer)
                 )
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // ✅ Caffeine L1 in front of Redis, invalidated across nodes via pub/sub
+        TwoLevelCacheManager cacheManager =
+                new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, localMaximumSize, localTtl);
+        // ✅ Stampede protection: serve stale after soft TTL while one node refreshes
+        cacheManager.setSoftTtl(softTtl);
+        cacheManager.setLockTtl(lockTtl);
+        cacheManager.setLockWait(lockWait);
+        // ✅ cache.gets (hits per tier, misses) and cache.load timings per cache
+        cacheManager.setMeterRegistry(meterRegistry);
+        return cacheManager;
+    }
+
+    // Non-blocking access to the same cache entries (ReactiveCourseService): keys as RedisCache
+    // writes them ("courses::42"), values in the cache's format
+    @Bean
+    public ReactiveRedisTemplate<String, Object> cacheRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                    RedisSerializer<Object> cacheValueSerializer) {
+        return new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(cacheValueSerializer)
+                .build());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cacheManager.onInvalidationMessage(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
     }
 }
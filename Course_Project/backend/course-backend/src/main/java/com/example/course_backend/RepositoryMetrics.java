@@ -0,0 +1,68 @@
+package com.example.course_backend;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Rows returned per repository call, as repository.rows with the same repository/method tags
+// as Spring Boot's spring.data.repository.invocations timer, which already times every call.
+// Scalar results (counts, exists) are not rows and are not recorded; a Stream is counted as
+// it is consumed and recorded when it is closed.
+@Aspect
+@Component
+public class RepositoryMetrics {
+
+    // Per repository proxy class and method name, so a call only builds and registers its meter once
+    private record MeterKey(Class<?> proxy, String method) {}
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object recordRows(ProceedingJoinPoint call) throws Throwable {
+        Object result = call.proceed();
+        if (result == null || result instanceof Number || result instanceof Boolean) return result;
+
+        DistributionSummary rows = summaries.computeIfAbsent(
+                new MeterKey(call.getThis().getClass(), call.getSignature().getName()),
+                key -> DistributionSummary.builder("repository.rows")
+                        .description("Rows returned by a repository call")
+                        .tags("repository", repositoryName(call), "method", key.method())
+                        .register(meterRegistry));
+        if (result instanceof Stream<?> stream) {
+            AtomicLong count = new AtomicLong();
+            return stream.peek(row -> count.incrementAndGet()).onClose(() -> rows.record(count.get()));
+        }
+        rows.record(rowCount(result));
+        return result;
+    }
+
+    static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Slice<?> slice) return slice.getNumberOfElements();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        return 1;
+    }
+
+    // The interface the service talks to (CourseRepository), not CrudRepository for inherited methods
+    private static String repositoryName(ProceedingJoinPoint call) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(call.getThis());
+        return interfaces.length > 0 ? interfaces[0].getSimpleName() : call.getSignature().getDeclaringType().getSimpleName();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.course_backend;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One access log line for a sample of requests (logging.request.sample-rate, 0 to 1) and for
+// every 5xx, instead of framework DEBUG logging on each request. Latency of all requests is
+// in the http.server.requests metric; this is for spotting what the slow or failing ones were.
+//
+// Async responses (StreamingResponseBody exports, Mono/Flux handlers) are logged when their last
+// dispatch ends, with the status they finished with and the time since the request came in.
+@Component
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    private static final String STARTED_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".started";
+
+    private final double sampleRate;
+
+    public RequestLoggingFilter(@Value("${logging.request.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isAsyncDispatch(request)) request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        boolean failed = false;
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            // the response is not complete yet; the async dispatch that completes it logs it
+            if (!isAsyncStarted(request)) log(request, response, failed);
+        }
+    }
+
+    // Also run on async dispatches, which OncePerRequestFilter skips by default
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // An exception that got out of the chain is a 500 even when the response was already
+    // committed as 200, e.g. an export failing halfway through the stream
+    private void log(HttpServletRequest request, HttpServletResponse response, boolean failed) {
+        if (!(request.getAttribute(STARTED_ATTRIBUTE) instanceof Long started)) return;
+        int status = failed ? Math.max(response.getStatus(), 500) : response.getStatus();
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        if (status >= 500) {
+            logger.warn("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+        } else if (sampled() && logger.isInfoEnabled()) {
+            logger.info("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.course_backend;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Ranked, prefix-aware text search backed by the Postgres tsvector columns and GIN
+// indexes created in schema.sql. Course search only selects the ids of the requested
+// page; CourseService hydrates them through the per-course cache.
+@Service
+public class SearchService {
+
+    private final CourseRepository courseRepository;
+    private final UnitRepository unitRepository;
+
+    public SearchService(CourseRepository courseRepository, UnitRepository unitRepository) {
+        this.courseRepository = courseRepository;
+        this.unitRepository = unitRepository;
+    }
+
+    public CourseIdPage searchCourseIds(String board, String medium, String subject, String grade,
+                                        String search, Pageable pageable) {
+        String query = toTsQuery(search);
+        String boards = facetParam(Board.class, board);
+        String mediums = facetParam(Medium.class, medium);
+        String subjects = facetParam(Subject.class, subject);
+        String grades = facetParam(Grade.class, grade);
+        if (query == null || boards == null || mediums == null || subjects == null || grades == null) {
+            return new CourseIdPage(new int[0], 0);
+        }
+
+        long total = courseRepository.countSearch(query, boards, mediums, subjects, grades);
+        if (pageable.getOffset() >= total) return new CourseIdPage(new int[0], total);
+
+        List<Integer> ids = courseRepository.searchIds(query, boards, mediums, subjects, grades,
+                pageable.getPageSize(), pageable.getOffset());
+        return new CourseIdPage(ids.stream().mapToInt(Integer::intValue).toArray(), total);
+    }
+
+    public record RankedId(Integer id, float rank) {}
+
+    // Up to limit matches after the cursor, in the same (rank desc, id) order as searchCourseIds,
+    // so walking ?after= visits the same ids as walking pages.
+    public List<RankedId> searchCourseIdsAfter(String board, String medium, String subject, String grade,
+                                               String search, PageCursor after, int limit) {
+        if (after != null && (after.id() == null || after.rank() == null))
+            throw new BadRequestException("Invalid search cursor");
+        String query = toTsQuery(search);
+        String boards = facetParam(Board.class, board);
+        String mediums = facetParam(Medium.class, medium);
+        String subjects = facetParam(Subject.class, subject);
+        String grades = facetParam(Grade.class, grade);
+        if (query == null || boards == null || mediums == null || subjects == null || grades == null) {
+            return List.of();
+        }
+
+        return courseRepository.searchIdsAfter(query, boards, mediums, subjects, grades,
+                        after == null ? 0 : after.id(), after == null ? 0f : after.rank(), limit).stream()
+                .map(row -> new RankedId(((Number) row[0]).intValue(), ((Number) row[1]).floatValue()))
+                .toList();
+    }
+
+    public Page<Unit> searchUnits(Integer courseId, String search, Pageable pageable) {
+        if (!courseRepository.existsById(courseId))
+            throw new NotFoundException("Course not found");
+        String query = toTsQuery(search);
+        if (query == null) throw new BadRequestException("Search text is required");
+
+        long total = unitRepository.countSearchInCourse(courseId, query);
+        if (pageable.getOffset() >= total) return new PageImpl<>(List.of(), pageable, total);
+        List<Unit> units = unitRepository.searchInCourse(courseId, query, pageable.getPageSize(),
+                pageable.getOffset());
+        return new PageImpl<>(units, pageable, total);
+    }
+
+    // Ids of every course whose name/description matches, for facet counting.
+    public BitSet matchingCourseIds(String search) {
+        BitSet ids = new BitSet();
+        String query = toTsQuery(search);
+        if (query == null) return ids;
+        courseRepository.findIdsMatchingText(query).forEach(ids::set);
+        return ids;
+    }
+
+    // "alg equ" -> "alg:* & equ:*": every word must match, each as a prefix.
+    // Anything that is not a letter or digit is a separator, so user input can
+    // never inject tsquery operators.
+    static String toTsQuery(String search) {
+        if (search == null) return null;
+        List<String> terms = Arrays.stream(search.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .map(t -> t + ":*")
+                .toList();
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    // '' for "any", null when values were given but none is a known constant.
+    static <E extends Enum<E>> String facetParam(Class<E> type, String values) {
+        if (values == null || values.isBlank()) return "";
+        List<E> parsed = CourseSpecifications.parseAll(type, values);
+        if (parsed.isEmpty()) return null;
+        return parsed.stream().map(Enum::name).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.course_backend;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Load-test catalog for the "synthetic" profile (replaces DataSeeder there): seed.courses
+// courses with skewed Board/Medium/Subject/Grade distributions and on average
+// seed.units-per-course units of varying length. Chunks of seed.chunk-size courses are
+// generated and written in parallel on seed.threads threads, one transaction of batched
+// inserts each (see hibernate.jdbc.batch_size). Every chunk has its own random stream, so a
+// given seed.random-seed always produces the same catalog. Tops up to seed.courses if the
+// table already has rows.
+@Component
+@Profile("synthetic")
+@Order(1)
+public class SyntheticDataSeeder implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    // Rough shape of a real catalog: CBSE and state boards dominate, English medium with a
+    // regional second medium, core subjects more common, a course spans 1-3 adjacent grades.
+    private static final double[] BOARD_WEIGHTS = {0.45, 0.20, 0.35};                   // CBSE, ICSE, STATE
+    private static final double[] MEDIUM_WEIGHTS = {0.70, 0.18, 0.12};                  // ENGLISH, KANNADA, HINDI
+    private static final double[] SUBJECT_WEIGHTS = {0.26, 0.24, 0.18, 0.14, 0.09, 0.09}; // MATHEMATICS .. KANNADA
+    private static final String[] TOPICS = {"Basics", "Fundamentals", "Essentials", "Starter", "Foundations",
+            "Advanced", "Revision", "Practice", "Workbook", "Explorer", "Made Easy", "Olympiad"};
+    private static final String[] WORDS = ("number fraction equation triangle motion force energy cell plant "
+            + "river map history culture grammar story poem letter essay chapter example exercise practice "
+            + "revision concept solution diagram experiment observation summary question answer").split(" ");
+
+    private static final int MAX_TEXT = 255;
+
+    private final CourseRepository courseRepository;
+    private final CourseCacheKeys cacheKeys;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${seed.courses:100000}")
+    private long courses;
+
+    @Value("${seed.units-per-course:5}")
+    private int unitsPerCourse;
+
+    @Value("${seed.threads:4}")
+    private int threads;
+
+    @Value("${seed.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    public SyntheticDataSeeder(CourseRepository courseRepository, CourseCacheKeys cacheKeys,
+                               TransactionTemplate transactionTemplate) {
+        this.courseRepository = courseRepository;
+        this.cacheKeys = cacheKeys;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long existing = courseRepository.count();
+        long missing = courses - existing;
+        if (missing <= 0) {
+            logger.info("Synthetic seeding skipped: {} courses present, {} requested", existing, courses);
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        long chunks = (missing + chunkSize - 1) / chunkSize;
+        AtomicLong written = new AtomicLong();
+        AtomicLong units = new AtomicLong();
+        logger.info("Seeding {} synthetic courses in {} chunks on {} threads", missing, chunks, threads);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long first = existing + chunk * chunkSize;
+                int size = (int) Math.min(chunkSize, missing - chunk * chunkSize);
+                SplittableRandom random = new SplittableRandom(randomSeed * 31 + first);
+                tasks.add(pool.submit(() -> {
+                    units.addAndGet(writeChunk(random, first, size));
+                    long done = written.addAndGet(size);
+                    if (done * 10 / missing != (done - size) * 10 / missing)
+                        logger.info("Seeded {}/{} courses", done, missing);
+                }));
+            }
+            for (Future<?> task : tasks) task.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // lists cached before seeding no longer match the table
+        cacheKeys.invalidateAll();
+        long seconds = Math.max(1, (System.currentTimeMillis() - started) / 1000);
+        logger.info("Seeded {} courses and {} units in {} s ({} courses/s)",
+                written.get(), units.get(), seconds, written.get() / seconds);
+    }
+
+    private long writeChunk(SplittableRandom random, long first, int size) {
+        List<Course> chunk = new ArrayList<>(size);
+        long unitCount = 0;
+        for (int i = 0; i < size; i++) {
+            Course course = course(random, first + i + 1);
+            unitCount += course.getUnits().size();
+            chunk.add(course);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        return unitCount;
+    }
+
+    private Course course(SplittableRandom random, long number) {
+        Subject subject = Subject.values()[weighted(random, SUBJECT_WEIGHTS)];
+        List<Subject> subjects = new ArrayList<>(List.of(subject));
+        if (random.nextInt(10) == 0) {
+            Subject second = Subject.values()[weighted(random, SUBJECT_WEIGHTS)];
+            if (second != subject) subjects.add(second);
+        }
+
+        List<Medium> mediums = new ArrayList<>(List.of(Medium.values()[weighted(random, MEDIUM_WEIGHTS)]));
+        if (mediums.get(0) == Medium.ENGLISH && random.nextInt(4) == 0)
+            mediums.add(random.nextBoolean() ? Medium.KANNADA : Medium.HINDI);
+        else if (mediums.get(0) != Medium.ENGLISH && random.nextInt(2) == 0)
+            mediums.add(Medium.ENGLISH);
+
+        int firstGrade = random.nextInt(Grade.values().length);
+        int span = Math.min(1 + random.nextInt(3), Grade.values().length - firstGrade);
+        List<Grade> grades = new ArrayList<>(span);
+        for (int g = firstGrade; g < firstGrade + span; g++) grades.add(Grade.values()[g]);
+
+        Course course = new Course();
+        course.setName(title(subject) + " " + TOPICS[random.nextInt(TOPICS.length)] + " " + number);
+        course.setDescription(text(random, 8 + random.nextInt(30)));
+        course.setBoard(Board.values()[weighted(random, BOARD_WEIGHTS)]);
+        course.setSubject(subjects);
+        course.setMedium(mediums);
+        course.setGrade(grades);
+
+        // 0 .. 2 * unitsPerCourse units, so the average is unitsPerCourse
+        int unitCount = unitsPerCourse == 0 ? 0 : random.nextInt(2 * unitsPerCourse + 1);
+        List<Unit> units = new ArrayList<>(unitCount);
+        for (int u = 1; u <= unitCount; u++) {
+            Unit unit = new Unit();
+            unit.setTitle("Unit " + u + ": " + capitalize(WORDS[random.nextInt(WORDS.length)]));
+            // mostly short notes, now and then one filling the column
+            int words = random.nextInt(10) == 0 ? 40 : 4 + random.nextInt(20);
+            unit.setContent(text(random, words));
+            unit.setCourse(course);
+            units.add(unit);
+        }
+        course.setUnits(units);
+        return course;
+    }
+
+    private static int weighted(SplittableRandom random, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    // At most MAX_TEXT characters: name, description, title and content are varchar(255)
+    private static String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder(MAX_TEXT);
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (text.length() + word.length() + 2 > MAX_TEXT) break;
+            if (i > 0) text.append(' ');
+            text.append(word);
+        }
+        return capitalize(text.append('.').toString());
+    }
+
+    private static String title(Subject subject) {
+        return capitalize(subject.name().toLowerCase());
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.course_backend;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// A Cache with a bounded in-heap Caffeine tier (L1) in front of a Redis cache (L2).
+// L1 only ever holds values read back from Redis, i.e. plain deserialized objects,
+// never the Hibernate-managed instance that was just loaded. Evictions are applied
+// locally and published so other nodes drop their L1 copy too.
+//
+// For @Cacheable(sync = true) lookups (get with a loader) a miss is coalesced: one loader
+// per key per node (single-flight), and across nodes only the holder of a short Redis lock
+// loads while the others wait for its result. Entries past their soft TTL are still served
+// while one background refresh replaces them.
+//
+// Metrics per cache: cache.gets counts hits by tier (local = Caffeine, remote = Redis) and
+// misses of both tiers; cache.load times the loader (database) calls behind misses and
+// refreshes. A stale entry served while it is refreshed counts as a hit.
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    static final String ALL_KEYS = "*";
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final TwoLevelCacheManager manager;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Timer loads;
+    private final Timer failedLoads;
+
+    public TwoLevelCache(String name, Cache remote, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         TwoLevelCacheManager manager) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.manager = manager;
+
+        MeterRegistry registry = manager.getMeterRegistry();
+        this.localHits = gets(registry, "hit", "local");
+        this.remoteHits = gets(registry, "hit", "remote");
+        this.misses = gets(registry, "miss", "remote");
+        this.loads = loadTimer(registry, "success");
+        this.failedLoads = loadTimer(registry, "failure");
+    }
+
+    private Counter gets(MeterRegistry registry, String result, String tier) {
+        return Counter.builder("cache.gets")
+                .description("Cache lookups by result and the tier that answered")
+                .tags("cache", name, "result", result, "tier", tier)
+                .register(registry);
+    }
+
+    private Timer loadTimer(MeterRegistry registry, String result) {
+        return Timer.builder("cache.load")
+                .description("Time spent loading values on a cache miss or refresh")
+                .tags("cache", name, "result", result)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEntry entry = lookup(key);
+        return entry == null ? null : new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry entry = lookup(key);
+        if (entry != null) {
+            if (entry.isStale()) refreshInBackground(key, valueLoader);
+            return (T) entry.value();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, mine);
+        if (running != null) return (T) join(key, running);
+
+        try {
+            mine.complete(loadCoordinated(key, valueLoader));
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(localKey, mine);
+        }
+        return (T) join(key, mine);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, manager.wrap(value));
+        local.invalidate(localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(localKey(key));
+        manager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        invalidateLocal(localKey(key));
+        manager.publishInvalidation(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocal(ALL_KEYS);
+        manager.publishInvalidation(name, ALL_KEYS);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = remote.invalidate();
+        invalidateLocal(ALL_KEYS);
+        manager.publishInvalidation(name, ALL_KEYS);
+        return hadEntries;
+    }
+
+    // Fresh values for the given keys: L1 first, then a single Redis MGET for the rest.
+    // Absent keys are missing from the result; stale entries are too, so the caller
+    // reloads them together with the misses instead of one refresh per key.
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            CacheEntry entry = (CacheEntry) local.getIfPresent(localKey(key));
+            if (entry == null) {
+                remoteKeys.add(key);
+            } else if (!entry.isStale()) {
+                found.put(key, entry.value());
+                localHits.increment();
+            } else {
+                // reloaded by the caller together with the misses
+                misses.increment();
+            }
+        }
+        if (remoteKeys.isEmpty()) return found;
+
+        List<Object> stored = manager.multiGet(remote, remoteKeys);
+        int fromRemote = 0;
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            if (stored.get(i) == null) continue;
+            Object key = remoteKeys.get(i);
+            CacheEntry entry = manager.unwrap(stored.get(i));
+            local.put(localKey(key), entry);
+            if (!entry.isStale()) {
+                found.put(key, entry.value());
+                fromRemote++;
+            }
+        }
+        remoteHits.increment(fromRemote);
+        misses.increment(remoteKeys.size() - fromRemote);
+        return found;
+    }
+
+    // Stores all values in one pipelined round trip.
+    public void putAll(Map<?, ?> values) {
+        if (values.isEmpty()) return;
+        Map<Object, Object> wrapped = new HashMap<>();
+        values.forEach((key, value) -> wrapped.put(key, manager.wrap(value)));
+        manager.multiPut(remote, wrapped);
+        values.keySet().forEach(key -> local.invalidate(localKey(key)));
+    }
+
+    // Evicts all keys with one Redis DEL and one pipelined round of pub/sub messages.
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) return;
+        manager.multiEvict(remote, keys);
+        List<String> localKeys = keys.stream().map(TwoLevelCache::localKey).distinct().toList();
+        localKeys.forEach(this::invalidateLocal);
+        manager.publishInvalidations(name, localKeys);
+    }
+
+    // L1 only, for callers that read Redis themselves without blocking (ReactiveCourseService)
+    CacheEntry getLocal(Object key) {
+        return (CacheEntry) local.getIfPresent(localKey(key));
+    }
+
+    void putLocal(Object key, CacheEntry entry) {
+        local.put(localKey(key), entry);
+    }
+
+    // Applies an invalidation coming from this node or from another node's pub/sub message.
+    void invalidateLocal(String key) {
+        if (ALL_KEYS.equals(key)) local.invalidateAll();
+        else local.invalidate(key);
+    }
+
+    // RedisCache also turns keys into strings, so two keys that collide here collide there too.
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private CacheEntry lookup(Object key) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return (CacheEntry) cached;
+        }
+
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper == null || wrapper.get() == null) {
+            misses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        CacheEntry entry = manager.unwrap(wrapper.get());
+        local.put(localKey, entry);
+        return entry;
+    }
+
+    // The Redis lock holder loads and stores; everybody else polls Redis for its result
+    // and only loads on its own if nothing shows up within the wait time.
+    private Object loadCoordinated(Object key, Callable<?> valueLoader) throws Exception {
+        String lockKey = lockKey(key);
+        String token = manager.tryLock(lockKey);
+        if (token == null) {
+            long deadline = System.nanoTime() + manager.getLockWait().toNanos();
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(25);
+                ValueWrapper wrapper = remoteGet(key);
+                if (wrapper != null && wrapper.get() != null) return manager.unwrap(wrapper.get()).value();
+            }
+            logger.debug("Gave up waiting for {}::{} from another node, loading locally", name, key);
+        }
+        try {
+            Object value = load(valueLoader);
+            if (value != null) put(key, value);
+            return value;
+        } finally {
+            if (token != null) manager.unlock(lockKey, token);
+        }
+    }
+
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        String localKey = localKey(key);
+        if (!refreshing.add(localKey)) return;
+        try {
+            manager.getRefreshExecutor().execute(() -> {
+                String lockKey = lockKey(key);
+                String token = manager.tryLock(lockKey);
+                try {
+                    // no token: another node holds the lock and is already refreshing
+                    if (token != null) {
+                        ValueWrapper current = remoteGet(key);
+                        if (current != null && current.get() != null && !manager.unwrap(current.get()).isStale()) {
+                            // someone else refreshed it already, only our L1 copy is old
+                            local.invalidate(localKey);
+                        } else {
+                            Object value = load(valueLoader);
+                            if (value != null) put(key, value);
+                        }
+                    }
+                } catch (Throwable e) {
+                    logger.warn("Background refresh of {}::{} failed, keeping stale value", name, key, e);
+                } finally {
+                    if (token != null) manager.unlock(lockKey, token);
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+        }
+    }
+
+    private Object load(Callable<?> valueLoader) throws Exception {
+        long started = System.nanoTime();
+        boolean loaded = false;
+        try {
+            Object value = valueLoader.call();
+            loaded = true;
+            return value;
+        } finally {
+            (loaded ? loads : failedLoads).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // An entry in an older value format (e.g. after a serializer change) is dropped
+    // and reported as a miss rather than failing the request.
+    private ValueWrapper remoteGet(Object key) {
+        try {
+            return remote.get(key);
+        } catch (SerializationException e) {
+            logger.warn("Dropping unreadable cache entry {}::{}", name, key, e);
+            remote.evict(key);
+            return null;
+        }
+    }
+
+    private String lockKey(Object key) {
+        return "lock:" + name + "::" + localKey(key);
+    }
+
+    private static Object join(Object key, CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new ValueRetrievalException(key, null, cause);
+        }
+    }
+}
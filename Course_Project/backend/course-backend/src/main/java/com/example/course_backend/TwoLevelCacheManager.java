@@ -0,0 +1,277 @@
+package com.example.course_backend;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// CacheManager that layers a per-node Caffeine cache over every Redis cache.
+// Evictions are broadcast on INVALIDATION_CHANNEL as "<node>|<cache>|<key>"; each node
+// ignores its own messages and drops the key (or everything, for "*") from its L1.
+// Other per-node state (CourseFacetIndex) can use the channel too, under a name that is not a cache.
+// Also owns what the caches share for stampede protection: the Redis load lock,
+// the soft TTL and the background refresh pool.
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final long localMaximumSize;
+    private final Duration localExpireAfterWrite;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Consumer<String>> listeners = new ConcurrentHashMap<>();
+
+    private Duration softTtl = Duration.ZERO;
+    private Duration lockTtl = Duration.ofSeconds(10);
+    private Duration lockWait = Duration.ofSeconds(3);
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+            1, 4, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256),
+            r -> {
+                Thread t = new Thread(r, "cache-refresh");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public TwoLevelCacheManager(CacheManager remote, StringRedisTemplate redisTemplate,
+                                long localMaximumSize, Duration localExpireAfterWrite) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.localMaximumSize = localMaximumSize;
+        this.localExpireAfterWrite = localExpireAfterWrite;
+    }
+
+    // Zero disables the soft TTL: entries are fresh until Redis expires them.
+    public void setSoftTtl(Duration softTtl) {
+        this.softTtl = softTtl;
+    }
+
+    public void setLockTtl(Duration lockTtl) {
+        this.lockTtl = lockTtl;
+    }
+
+    public void setLockWait(Duration lockWait) {
+        this.lockWait = lockWait;
+    }
+
+    // Where the caches register their cache.gets / cache.load meters; set before first use.
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public TwoLevelCache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache remoteCache = remote.getCache(n);
+            if (remoteCache == null) return null;
+            return new TwoLevelCache(n, remoteCache, Caffeine.newBuilder()
+                    .maximumSize(localMaximumSize)
+                    // safety net in case an invalidation message is missed
+                    .expireAfterWrite(localExpireAfterWrite)
+                    .build(), this);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + cacheName + "|" + key);
+        } catch (RuntimeException e) {
+            // L1 entries on other nodes still expire after localExpireAfterWrite
+            logger.warn("Could not publish cache invalidation for {}::{}", cacheName, key, e);
+        }
+    }
+
+    void publishInvalidations(String cacheName, Collection<String> keys) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) c -> {
+                keys.forEach(key -> c.publish(INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                        (nodeId + "|" + cacheName + "|" + key).getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish cache invalidation for {} keys of {}", keys.size(), cacheName, e);
+        }
+    }
+
+    CacheEntry wrap(Object value) {
+        long staleAfter = softTtl.isZero() ? Long.MAX_VALUE : System.currentTimeMillis() + softTtl.toMillis();
+        return new CacheEntry(value, staleAfter);
+    }
+
+    // Entries written before CacheEntry existed are treated as fresh
+    CacheEntry unwrap(Object stored) {
+        return stored instanceof CacheEntry entry ? entry : new CacheEntry(stored, Long.MAX_VALUE);
+    }
+
+    // Raw values for the keys in one MGET, null where absent or unreadable. Only RedisCache
+    // exposes what is needed to build its keys; anything else is read key by key.
+    List<Object> multiGet(Cache remoteCache, List<?> keys) {
+        List<Object> values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (!(remoteCache instanceof RedisCache redisCache)) {
+            for (int i = 0; i < keys.size(); i++) {
+                Cache.ValueWrapper wrapper = remoteCache.get(keys.get(i));
+                if (wrapper != null) values.set(i, wrapper.get());
+            }
+            return values;
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        byte[][] rawKeys = keys.stream().map(key -> rawKey(redisCache, key)).toArray(byte[][]::new);
+        List<byte[]> raw;
+        try {
+            raw = redisTemplate.execute((RedisCallback<List<byte[]>>) c -> c.stringCommands().mGet(rawKeys));
+        } catch (RuntimeException e) {
+            logger.warn("Cache multi-get on {} failed, treating {} keys as misses", redisCache.getName(), keys.size(), e);
+            return values;
+        }
+        for (int i = 0; raw != null && i < raw.size(); i++) {
+            if (raw.get(i) == null) continue;
+            try {
+                values.set(i, config.getValueSerializationPair().read(ByteBuffer.wrap(raw.get(i))));
+            } catch (SerializationException e) {
+                logger.warn("Skipping unreadable cache entry {}::{}", redisCache.getName(), keys.get(i), e);
+            }
+        }
+        return values;
+    }
+
+    // Pipelined SETs with the cache's own TTL, so a batch of misses costs one round trip.
+    void multiPut(Cache remoteCache, Map<?, ?> values) {
+        if (!(remoteCache instanceof RedisCache redisCache)) {
+            values.forEach(remoteCache::put);
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) c -> {
+                values.forEach((key, value) -> {
+                    Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                    Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                            ? Expiration.persistent() : Expiration.from(ttl);
+                    c.stringCommands().set(rawKey(redisCache, key),
+                            ByteUtils.getBytes(config.getValueSerializationPair().write(value)),
+                            expiration, RedisStringCommands.SetOption.upsert());
+                });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // the values are still returned to the caller, they just are not cached
+            logger.warn("Cache multi-put on {} failed", redisCache.getName(), e);
+        }
+    }
+
+    // One DEL for all keys
+    void multiEvict(Cache remoteCache, Collection<?> keys) {
+        if (!(remoteCache instanceof RedisCache redisCache)) {
+            keys.forEach(remoteCache::evict);
+            return;
+        }
+        byte[][] rawKeys = keys.stream().map(key -> rawKey(redisCache, key)).toArray(byte[][]::new);
+        redisTemplate.execute((RedisCallback<Long>) c -> c.keyCommands().del(rawKeys));
+    }
+
+    private static byte[] rawKey(RedisCache cache, Object key) {
+        String prefixed = cache.getCacheConfiguration().getKeyPrefixFor(cache.getName()) + TwoLevelCache.localKey(key);
+        return ByteUtils.getBytes(cache.getCacheConfiguration().getKeySerializationPair().write(prefixed));
+    }
+
+    // Returns the lock token, or null if somebody else holds the lock.
+    // If Redis is unreachable we fall back to loading without coordination.
+    String tryLock(String lockKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl)) ? token : null;
+        } catch (RuntimeException e) {
+            logger.warn("Could not take cache load lock {}", lockKey, e);
+            return token;
+        }
+    }
+
+    void unlock(String lockKey, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            // the lock expires on its own after lockTtl
+            logger.warn("Could not release cache load lock {}", lockKey, e);
+        }
+    }
+
+    Duration getLockWait() {
+        return lockWait;
+    }
+
+    Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // Messages from other nodes published under name go to listener instead of an L1 cache
+    void addInvalidationListener(String name, Consumer<String> listener) {
+        listeners.put(name, listener);
+    }
+
+    public void onInvalidationMessage(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) return;
+        Consumer<String> listener = listeners.get(parts[1]);
+        if (listener != null) {
+            listener.accept(parts[2]);
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) cache.invalidateLocal(parts[2]);
+    }
+}
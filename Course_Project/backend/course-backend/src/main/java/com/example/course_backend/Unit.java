@@ -22,9 +22,14 @@ public class Unit implements Serializable {
     private static final long serialVersionUID = 1L; //  Required for JDK serialization
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "unit_seq")
+    @SequenceGenerator(name = "unit_seq", sequenceName = "unit_seq", allocationSize = 50)
     private Integer id;
 
+    // Bumped by Hibernate on every update. Unit list ETags use CourseCacheKeys.unitsGeneration instead.
+    @Version
+    private Integer version;
+
     @NotBlank(message = "Unit title is required")
     private String title;
 
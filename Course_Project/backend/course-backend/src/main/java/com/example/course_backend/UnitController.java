@@ -1,11 +1,16 @@
 package com.example.course_backend;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -14,9 +19,16 @@ import java.util.Map;
 public class UnitController {
 
     private final UnitService unitService;
+    private final CourseService courseService;
+    private final SearchService searchService;
+    private final CourseImportService importService;
 
-    public UnitController(UnitService unitService) {
+    public UnitController(UnitService unitService, CourseService courseService, SearchService searchService,
+                         CourseImportService importService) {
         this.unitService = unitService;
+        this.courseService = courseService;
+        this.searchService = searchService;
+        this.importService = importService;
     }
 
     @PostMapping
@@ -28,10 +40,43 @@ public class UnitController {
                 Map.of("message", "Unit added successfully", "data", created)));
     }
 
+    // Streams the body: NDJSON (one unit per line) or CSV with a title,content header
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<Map<String, Object>>> importUnits(
+            @PathVariable Integer courseId,
+            HttpServletRequest request) throws IOException {
+        CourseImportService.ImportResult imported = importService.importUnits(
+                courseId, request.getInputStream(), CourseImportService.Format.of(request.getContentType()));
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", imported.failed() == 0 ? "Units imported successfully" : "Units imported with errors");
+        result.put("data", imported);
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.unit.import", result));
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, Object>>> getUnitsByCourse(
             @PathVariable Integer courseId,
-            @PageableDefault(size = 10) Pageable pageable) {
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(required = false) String after,
+            ServletWebRequest request) {
+        // The cached course version 404s a missing course; the units generation is one Redis GET
+        String etag = ETagUtil.of("units", courseService.getCourseVersion(courseId),
+                unitService.getUnitsVersion(courseId), pageable, after);
+        if (ETagUtil.checkNotModified(request, etag)) return null;
+
+        if (after != null) {
+            Slice<Unit> slice = unitService.getUnitsByCourseAfter(courseId, after, pageable.getPageSize());
+            List<Unit> content = slice.getContent();
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", content.isEmpty() ? "No units found" : "Units fetched successfully");
+            result.put("data", content);
+            result.put("size", content.size());
+            result.put("nextCursor", slice.hasNext()
+                    ? PageCursor.ofUnit(content.get(content.size() - 1)).encode() : null);
+            return ResponseEntity.ok(ResponseUtil.successWithData("api.unit.getAll", result));
+        }
+
         var page = unitService.getUnitsByCoursePaginated(courseId, pageable);
         Map<String, Object> result = new HashMap<>();
         result.put("message", page.isEmpty() ? "No units found" : "Units fetched successfully");
@@ -42,6 +87,21 @@ public class UnitController {
         return ResponseEntity.ok(ResponseUtil.successWithData("api.unit.getAll", result));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchUnits(
+            @PathVariable Integer courseId,
+            @RequestParam String q,
+            @PageableDefault(size = 10) Pageable pageable) {
+        var page = searchService.searchUnits(courseId, q, pageable);
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", page.isEmpty() ? "No units found" : "Units fetched successfully");
+        result.put("data", page.getContent());
+        result.put("totalPages", page.getTotalPages());
+        result.put("totalElements", page.getTotalElements());
+        result.put("currentPage", page.getNumber());
+        return ResponseEntity.ok(ResponseUtil.successWithData("api.unit.search", result));
+    }
+
     @PutMapping("/{unitId}")
     public ResponseEntity<ApiResponse<Map<String, Object>>> updateUnit(
             @PathVariable Integer courseId,
@@ -2,13 +2,44 @@
 
 package com.example.course_backend;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 
 public interface UnitRepository extends JpaRepository<Unit, Integer> {
     List<Unit> findByCourseId(Integer courseId);
+
+    // One page of units plus a separate count query, both served by idx_unit_course_id
+    // (schema.sql). Written out because the derived query joins course just to compare its id.
+    @Query(value = "select u from Unit u where u.course.id = :courseId",
+            countQuery = "select count(u) from Unit u where u.course.id = :courseId")
+    Page<Unit> findByCourseId(@Param("courseId") Integer courseId, Pageable pageable);
+
+    // Units of a chunk of exported courses in one query, grouped by course
+    @Query("select u from Unit u where u.course.id in :courseIds order by u.course.id, u.id")
+    List<Unit> findByCourseIdIn(@Param("courseIds") Collection<Integer> courseIds);
+
+    List<Unit> findByCourseIdAndIdGreaterThanOrderByIdAsc(Integer courseId, Integer id, Limit limit);
+
+    // Full-text search over the GIN indexed unit.search_vector (see schema.sql)
+    @Query(value = "select u.* from unit u " +
+            "where u.course_id = :courseId and u.search_vector @@ to_tsquery('english', :query) " +
+            "order by ts_rank(u.search_vector, to_tsquery('english', :query)) desc, u.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Unit> searchInCourse(@Param("courseId") Integer courseId, @Param("query") String query,
+                              @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "select count(*) from unit u " +
+            "where u.course_id = :courseId and u.search_vector @@ to_tsquery('english', :query)",
+            nativeQuery = true)
+    long countSearchInCourse(@Param("courseId") Integer courseId, @Param("query") String query);
 }
 
 
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 @Service
@@ -16,40 +17,77 @@ public class UnitService {
 
     private final UnitRepository unitRepository;
     private final CourseRepository courseRepository;
+    private final CourseCacheKeys cacheKeys;
     private static final Logger logger = LoggerFactory.getLogger(UnitService.class);
 
-    public UnitService(UnitRepository unitRepository, CourseRepository courseRepository) {
+    public UnitService(UnitRepository unitRepository, CourseRepository courseRepository, CourseCacheKeys cacheKeys) {
         this.unitRepository = unitRepository;
         this.courseRepository = courseRepository;
+        this.cacheKeys = cacheKeys;
     }
 
     public Unit addUnitToCourse(Integer courseId, Unit unit) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new NotFoundException("Course not found"));
 
-        if (unit.getTitle() == null || unit.getTitle().isBlank())
-            throw new BadRequestException("Unit title is required");
-        if (unit.getContent() == null || unit.getContent().isBlank())
-            throw new BadRequestException("Unit content is required");
+        validateNewUnit(unit);
 
         unit.setCourse(course); // link unit to course
         Unit savedUnit = unitRepository.save(unit); // save unit explicitly
 
 
         course.getUnits().add(savedUnit);
+        cacheKeys.invalidateUnits(List.of(courseId));
 
         logger.info("Added unit '{}' to course '{}'", savedUnit.getTitle(), course.getName());
         return savedUnit;
     }
 
+    // The rules addUnitToCourse applies, shared with the bulk import (CourseImportService)
+    public void validateNewUnit(Unit unit) {
+        unit.setVersion(null); // see CourseService.validateNewCourse
+        if (unit.getTitle() == null || unit.getTitle().isBlank())
+            throw new BadRequestException("Unit title is required");
+        if (unit.getContent() == null || unit.getContent().isBlank())
+            throw new BadRequestException("Unit content is required");
+    }
+
+    // Moves with every unit write of the course (CourseCacheKeys.unitsGeneration), so a
+    // revalidation does not touch the unit table
+    public String getUnitsVersion(Integer courseId) {
+        return cacheKeys.unitsGeneration(courseId);
+    }
+
+    private static final Set<String> SORTABLE = Set.of("id", "title");
+
+    // LIMIT/OFFSET in Postgres instead of initializing course.getUnits() and calling subList.
+    // Unit id is always the last sort key so pages stay stable when titles repeat.
     public Page<Unit> getUnitsByCoursePaginated(Integer courseId, Pageable pageable) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new NotFoundException("Course not found"));
-        List<Unit> units = course.getUnits();
-        int start = Math.min((int) pageable.getOffset(), units.size());
-        int end = Math.min(start + pageable.getPageSize(), units.size());
-        List<Unit> content = units.subList(start, end);
-        return new PageImpl<>(content, pageable, units.size());
+        if (!courseRepository.existsById(courseId))
+            throw new NotFoundException("Course not found");
+        pageable.getSort().forEach(order -> {
+            if (!SORTABLE.contains(order.getProperty()))
+                throw new BadRequestException("Units cannot be sorted by " + order.getProperty());
+        });
+        Sort sort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by("id"))
+                : pageable.getSort();
+        return unitRepository.findByCourseId(courseId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+    }
+
+    // Seek pagination on unit id; one extra row tells us whether there is a next page.
+    public Slice<Unit> getUnitsByCourseAfter(Integer courseId, String after, int size) {
+        if (size < 1) throw new BadRequestException("Size must be at least 1");
+        if (!courseRepository.existsById(courseId))
+            throw new NotFoundException("Course not found");
+
+        PageCursor cursor = PageCursor.decode(after);
+        int afterId = cursor == null ? 0 : cursor.id();
+        List<Unit> rows = unitRepository.findByCourseIdAndIdGreaterThanOrderByIdAsc(
+                courseId, afterId, Limit.of(size + 1));
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
     }
 
     public Unit updateUnit(Integer courseId, Integer unitId, Unit updatedUnit) {
@@ -60,6 +98,7 @@ public class UnitService {
         if (updatedUnit.getTitle() != null && !updatedUnit.getTitle().isBlank()) unit.setTitle(updatedUnit.getTitle());
         if (updatedUnit.getContent() != null && !updatedUnit.getContent().isBlank()) unit.setContent(updatedUnit.getContent());
         Unit saved = unitRepository.save(unit);
+        cacheKeys.invalidateUnits(List.of(courseId));
         logger.info("Updated unit: {} (id={})", saved.getTitle(), saved.getId());
         return saved;
     }
@@ -69,16 +108,21 @@ public class UnitService {
         if (unit.getCourse() == null || !unit.getCourse().getId().equals(courseId))
             throw new BadRequestException("Unit does not belong to course " + courseId);
 
+        applyPatch(unit, updates);
+
+        Unit saved = unitRepository.save(unit);
+        cacheKeys.invalidateUnits(List.of(courseId));
+        logger.info("Patched unit: {} (id={})", saved.getTitle(), saved.getId());
+        return saved;
+    }
+
+    static void applyPatch(Unit unit, Map<String, Object> updates) {
         updates.forEach((k, v) -> {
             switch (k) {
                 case "title" -> unit.setTitle((String) v);
                 case "content" -> unit.setContent((String) v);
             }
         });
-
-        Unit saved = unitRepository.save(unit);
-        logger.info("Patched unit: {} (id={})", saved.getTitle(), saved.getId());
-        return saved;
     }
 
     public void deleteUnit(Integer courseId, Integer unitId) {
@@ -86,6 +130,7 @@ public class UnitService {
         if (unit.getCourse() == null || !unit.getCourse().getId().equals(courseId))
             throw new BadRequestException("Unit does not belong to course " + courseId);
         unitRepository.delete(unit);
+        cacheKeys.invalidateUnits(List.of(courseId));
         logger.info("Deleted unit: {} (id={})", unit.getTitle(), unit.getId());
     }
 }
\ No newline at end of file
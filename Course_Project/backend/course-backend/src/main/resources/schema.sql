@@ -0,0 +1,41 @@
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization=true).
+-- Every statement must be idempotent.
+
+-- Full-text search: weighted tsvectors kept up to date by Postgres, GIN indexed.
+ALTER TABLE course ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+                         setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_course_search_vector ON course USING GIN (search_vector);
+
+ALTER TABLE unit ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                         setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_unit_search_vector ON unit USING GIN (search_vector);
+
+-- Facet lists live on the course row as text[] (see EnumListConverter); GIN indexes
+-- serve the && overlap filters. ddl-auto cannot add them to a populated table (it wants
+-- NOT NULL from @NotEmpty), so they are added nullable here and filled from the old
+-- course_subject/course_medium/course_grade tables by CourseFacetMigration.
+ALTER TABLE course ADD COLUMN IF NOT EXISTS subject text[];
+ALTER TABLE course ADD COLUMN IF NOT EXISTS medium text[];
+ALTER TABLE course ADD COLUMN IF NOT EXISTS grade text[];
+CREATE INDEX IF NOT EXISTS idx_course_subject ON course USING GIN (subject);
+CREATE INDEX IF NOT EXISTS idx_course_medium ON course USING GIN (medium);
+CREATE INDEX IF NOT EXISTS idx_course_grade ON course USING GIN (grade);
+
+-- Course lists are in case-insensitive name order with id as tie-breaker (nameOrder), so a
+-- page can be read off the index instead of sorting every matching row.
+CREATE INDEX IF NOT EXISTS idx_course_name_lower ON course (lower(name), id);
+
+-- Units are always read per course, in id order (paged, keyset and search).
+CREATE INDEX IF NOT EXISTS idx_unit_course_id ON unit (course_id, id);
+
+-- @Version columns: ddl-auto adds them nullable, rows from before they existed start at 0.
+UPDATE course SET version = 0 WHERE version IS NULL;
+UPDATE unit SET version = 0 WHERE version IS NULL;
+
+-- Course and unit ids come from pooled-lo sequences (allocationSize 50) so inserts batch.
+-- Tables created with IDENTITY ids already hold rows: start the sequences past them, once,
+-- while they have not handed out a value yet.
+SELECT setval('course_seq', (SELECT coalesce(max(id), 0) + 1 FROM course), false) FROM course_seq WHERE NOT is_called;
+SELECT setval('unit_seq', (SELECT coalesce(max(id), 0) + 1 FROM unit), false) FROM unit_seq WHERE NOT is_called;
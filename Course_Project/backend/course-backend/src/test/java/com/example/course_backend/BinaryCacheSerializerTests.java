@@ -0,0 +1,172 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Round trips through the Redis value format, no Redis or Postgres needed.
+class BinaryCacheSerializerTests {
+
+	private static final int THRESHOLD = 1024;
+
+	private final RedisSerializer<Object> json = GenericJackson2JsonRedisSerializer.builder()
+			.objectMapper(new RedisConfig().redisObjectMapper())
+			.defaultTyping(true)
+			.build();
+
+	private final BinaryCacheSerializer serializer = new BinaryCacheSerializer(json, THRESHOLD);
+
+	@Test
+	void nullIsEmpty() {
+		assertThat(serializer.serialize(null)).isEmpty();
+		assertThat(serializer.deserialize(new byte[0])).isNull();
+		assertThat(serializer.deserialize(null)).isNull();
+	}
+
+	@Test
+	void versionedCourseWithUnits() {
+		Course course = course(7, 3, "Algebra", 2);
+
+		Course read = (Course) roundTrip(course);
+
+		assertCourse(read, course);
+		assertThat(read.getUnits()).allSatisfy(unit -> assertThat(unit.getCourse()).isSameAs(read));
+	}
+
+	@Test
+	void courseWithoutLoadedUnitsKeepsThemAbsent() {
+		Course course = course(8, 0, "Geometry", 0);
+		course.setUnits(null);
+
+		assertThat(((Course) roundTrip(course)).getUnits()).isNull();
+	}
+
+	@Test
+	void versionedUnit() {
+		Unit unit = unit(11, 5, "Fractions");
+
+		Unit read = (Unit) roundTrip(unit);
+
+		assertThat(read.getId()).isEqualTo(11);
+		assertThat(read.getVersion()).isEqualTo(5);
+		assertThat(read.getTitle()).isEqualTo("Fractions");
+		assertThat(read.getContent()).isEqualTo(unit.getContent());
+		assertThat(read.getCourse()).isNull();
+	}
+
+	@Test
+	void nestedCollections() {
+		List<Object> inner = new ArrayList<>(Arrays.asList(null, new int[]{1, 2, 300_000}));
+		List<Object> value = List.of(
+				new CacheEntry(new CourseIdPage(new int[]{5, 3, 9}, 42), 1234L),
+				inner,
+				List.of(),
+				// through the JSON fallback, e.g. courseVersions values
+				5);
+
+		List<?> read = (List<?>) roundTrip(value);
+
+		assertThat(read).hasSize(4);
+		CacheEntry entry = (CacheEntry) read.get(0);
+		assertThat(entry.staleAfterMillis()).isEqualTo(1234L);
+		CourseIdPage page = (CourseIdPage) entry.value();
+		assertThat(page.ids()).containsExactly(5, 3, 9);
+		assertThat(page.totalElements()).isEqualTo(42);
+		List<?> readInner = (List<?>) read.get(1);
+		assertThat(readInner.get(0)).isNull();
+		assertThat((int[]) readInner.get(1)).containsExactly(1, 2, 300_000);
+		assertThat((List<?>) read.get(2)).isEmpty();
+		assertThat(read.get(3)).isEqualTo(5);
+	}
+
+	@Test
+	void largeValueIsCompressed() {
+		Course course = course(9, 1, "Long course", 40);
+
+		byte[] bytes = serializer.serialize(course);
+
+		assertThat(bytes[0]).isEqualTo(BinaryCacheSerializer.FORMAT_LZ4);
+		assertCourse((Course) serializer.deserialize(bytes), course);
+	}
+
+	@Test
+	void smallValueStaysPlain() {
+		assertThat(serializer.serialize(unit(1, 0, "Short"))[0]).isEqualTo(BinaryCacheSerializer.FORMAT_PLAIN);
+	}
+
+	@Test
+	void oldOrUnknownTagsAreRejected() {
+		// 2 is the Course tag from before courses had a version
+		assertThatThrownBy(() -> serializer.deserialize(new byte[]{BinaryCacheSerializer.FORMAT_PLAIN, 2, 2, 1}))
+				.isInstanceOf(SerializationException.class);
+		assertThatThrownBy(() -> serializer.deserialize(new byte[]{BinaryCacheSerializer.FORMAT_PLAIN, 42}))
+				.isInstanceOf(SerializationException.class);
+		assertThatThrownBy(() -> serializer.deserialize(new byte[]{0x7F, 8}))
+				.isInstanceOf(SerializationException.class);
+		// cut off in the middle of a course
+		byte[] bytes = serializer.serialize(course(7, 3, "Algebra", 2));
+		assertThatThrownBy(() -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2)))
+				.isInstanceOf(SerializationException.class);
+	}
+
+	private Object roundTrip(Object value) {
+		return serializer.deserialize(serializer.serialize(value));
+	}
+
+	private static Course course(int id, int version, String name, int units) {
+		Course course = new Course();
+		course.setId(id);
+		course.setVersion(version);
+		course.setName(name);
+		course.setDescription("Description of " + name);
+		course.setBoard(Board.ICSE);
+		course.setSubject(new ArrayList<>(List.of(Subject.MATHEMATICS)));
+		course.setMedium(new ArrayList<>(List.of(Medium.ENGLISH, Medium.HINDI)));
+		course.setGrade(new ArrayList<>(List.of(Grade.CLASS_6, Grade.CLASS_7)));
+		List<Unit> list = new ArrayList<>();
+		for (int i = 0; i < units; i++) {
+			Unit unit = unit(id * 100 + i, i, "Unit " + i);
+			unit.setCourse(course);
+			list.add(unit);
+		}
+		course.setUnits(list);
+		return course;
+	}
+
+	private static Unit unit(int id, int version, String title) {
+		Unit unit = new Unit();
+		unit.setId(id);
+		unit.setVersion(version);
+		unit.setTitle(title);
+		unit.setContent("Content of " + title + ", long enough to repeat across units and compress well.");
+		return unit;
+	}
+
+	private static void assertCourse(Course read, Course expected) {
+		assertThat(read.getId()).isEqualTo(expected.getId());
+		assertThat(read.getVersion()).isEqualTo(expected.getVersion());
+		assertThat(read.getName()).isEqualTo(expected.getName());
+		assertThat(read.getDescription()).isEqualTo(expected.getDescription());
+		assertThat(read.getBoard()).isEqualTo(expected.getBoard());
+		assertThat(read.getSubject()).isEqualTo(expected.getSubject());
+		assertThat(read.getMedium()).isEqualTo(expected.getMedium());
+		assertThat(read.getGrade()).isEqualTo(expected.getGrade());
+		assertThat(read.getUnits()).hasSameSizeAs(expected.getUnits());
+		for (int i = 0; i < expected.getUnits().size(); i++) {
+			Unit unit = read.getUnits().get(i);
+			Unit original = expected.getUnits().get(i);
+			assertThat(unit.getId()).isEqualTo(original.getId());
+			assertThat(unit.getVersion()).isEqualTo(original.getVersion());
+			assertThat(unit.getTitle()).isEqualTo(original.getTitle());
+			assertThat(unit.getContent()).isEqualTo(original.getContent());
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Key composition and generation bumps against a mocked Redis: pipelines run their callback
+// on a mocked connection, which records the commands.
+class CourseCacheKeysTests {
+
+	private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> values = mock(ValueOperations.class);
+	private final StringRedisConnection connection = mock(StringRedisConnection.class);
+
+	private final CourseCacheKeys cacheKeys = new CourseCacheKeys(redisTemplate);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void redis() {
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(call -> {
+			call.getArgument(0, RedisCallback.class).doInRedis(connection);
+			return List.of();
+		});
+	}
+
+	@Test
+	void unfilteredListUsesTheAllGeneration() {
+		when(values.multiGet(List.of("coursesList:gen:all"))).thenReturn(List.of("12"));
+
+		String key = cacheKeys.listKey(null, " ", null, null, null, "asc", PageRequest.of(0, 6));
+
+		assertThat(key).isEqualTo("q=|asc|p=0,6|g=12");
+	}
+
+	@Test
+	void filteredListNormalizesValuesAndUsesTheirGenerations() {
+		when(values.multiGet(List.of("coursesList:gen:board:CBSE", "coursesList:gen:medium:ENGLISH",
+				"coursesList:gen:medium:HINDI", "coursesList:gen:grade:CLASS_5")))
+				.thenReturn(List.of("1", "2", "3", "4"));
+
+		String key = cacheKeys.listKey("cbse", "hindi, English,HINDI", null, "class_5", "  Maths ", "DESC",
+				PageRequest.of(2, 10));
+
+		assertThat(key).isEqualTo("board=CBSE|medium=ENGLISH,HINDI|grade=CLASS_5|q=maths|desc|p=2,10|g=1.2.3.4");
+	}
+
+	@Test
+	void sameFilterInAnotherOrderGivesTheSameKey() {
+		when(values.multiGet(anyList())).thenReturn(List.of("5", "6"));
+
+		assertThat(cacheKeys.listKey(null, "HINDI,ENGLISH", null, null, null, "asc", PageRequest.of(0, 6)))
+				.isEqualTo(cacheKeys.listKey(null, "english,hindi", null, null, null, "asc", PageRequest.of(0, 6)));
+	}
+
+	@Test
+	void missingGenerationIsSeededRandomly() {
+		List<String> read = new ArrayList<>();
+		read.add(null);
+		when(values.multiGet(List.of("coursesList:gen:all"))).thenReturn(read);
+		// SETNX, then GET of the value that won
+		when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(true, "987654321"));
+
+		String key = cacheKeys.listKey(null, null, null, null, null, "asc", PageRequest.of(0, 6));
+
+		assertThat(key).isEqualTo("q=|asc|p=0,6|g=987654321");
+	}
+
+	@Test
+	void invalidateBumpsTheGivenTagsAndAll() {
+		cacheKeys.invalidate(List.of("board:CBSE", "medium:ENGLISH"));
+
+		assertThat(bumped()).containsExactly(
+				"coursesList:gen:board:CBSE", "coursesList:gen:medium:ENGLISH", "coursesList:gen:all");
+	}
+
+	@Test
+	void invalidateWithoutTagsBumpsOnlyAll() {
+		cacheKeys.invalidate(List.of());
+
+		assertThat(bumped()).containsExactly("coursesList:gen:all");
+	}
+
+	@Test
+	void invalidateSeedsBeforeIncrementing() {
+		cacheKeys.invalidate(List.of("board:ICSE"));
+
+		InOrder order = inOrder(connection);
+		order.verify(connection).setNX(eq("coursesList:gen:board:ICSE"), anyString());
+		order.verify(connection).incr("coursesList:gen:board:ICSE");
+	}
+
+	@Test
+	void invalidateAllBumpsEveryFacetValue() {
+		cacheKeys.invalidateAll();
+
+		List<String> bumped = bumped();
+		assertThat(bumped).hasSize(Board.values().length + Medium.values().length
+				+ Subject.values().length + Grade.values().length + 1);
+		assertThat(bumped).contains("coursesList:gen:board:STATE", "coursesList:gen:grade:CLASS_5",
+				"coursesList:gen:all");
+	}
+
+	@Test
+	void unitGenerationsArePerCourse() {
+		cacheKeys.invalidateUnits(List.of(3, 4));
+
+		assertThat(bumped()).containsExactly("unitsList:gen:3", "unitsList:gen:4");
+	}
+
+	@Test
+	void noCoursesNoUnitBump() {
+		cacheKeys.invalidateUnits(List.of());
+
+		verify(connection, never()).incr(anyString());
+	}
+
+	private List<String> bumped() {
+		ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+		verify(connection, atLeastOnce()).incr(keys.capture());
+		return keys.getAllValues();
+	}
+}
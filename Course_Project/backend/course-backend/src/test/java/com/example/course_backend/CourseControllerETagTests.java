@@ -0,0 +1,135 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GETs of a course and its units: 304 while If-None-Match is current, a new ETag
+// and the body once a write moved the version.
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseControllerETagTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private TwoLevelCacheManager cacheManager;
+
+	private Integer courseId;
+
+	@BeforeEach
+	void createCourse() {
+		Course course = new Course();
+		course.setName("ETag fixture");
+		course.setDescription("Conditional GET fixture");
+		course.setBoard(Board.CBSE);
+		course.setSubject(new ArrayList<>(List.of(Subject.SCIENCE)));
+		course.setMedium(new ArrayList<>(List.of(Medium.ENGLISH)));
+		course.setGrade(new ArrayList<>(List.of(Grade.CLASS_5)));
+		courseId = courseService.createCourse(course).getId();
+	}
+
+	@AfterEach
+	void deleteCourse() {
+		courseService.deleteCourse(courseId);
+	}
+
+	@Test
+	void courseIsNotModifiedUntilItIsWritten() throws Exception {
+		String etag = etagOf("/api/courses/" + courseId);
+
+		mockMvc.perform(get("/api/courses/" + courseId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		patchName("ETag fixture, renamed");
+
+		String next = mockMvc.perform(get("/api/courses/" + courseId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.data.name").value("ETag fixture, renamed"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(next).isNotNull().isNotEqualTo(etag);
+		mockMvc.perform(get("/api/courses/" + courseId).header(HttpHeaders.IF_NONE_MATCH, next))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void unitsAreNotModifiedUntilAUnitIsAdded() throws Exception {
+		String units = "/api/courses/" + courseId + "/units";
+		String etag = etagOf(units);
+
+		mockMvc.perform(get(units).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(post(units).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\": \"Cells\", \"content\": \"What cells are made of\"}"))
+				.andExpect(status().is2xxSuccessful());
+
+		mockMvc.perform(get(units).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+	}
+
+	@Test
+	void etagFollowsTheBodyWhenTheCachedVersionDisagrees() throws Exception {
+		String etag = etagOf("/api/courses/" + courseId);
+		// a copy, as the cached instance itself is what the patch modifies
+		Course cached = courseService.getCourseById(courseId);
+		Course old = new Course();
+		old.setId(cached.getId());
+		old.setVersion(cached.getVersion());
+		old.setName(cached.getName());
+		old.setDescription(cached.getDescription());
+		old.setBoard(cached.getBoard());
+		old.setSubject(new ArrayList<>(cached.getSubject()));
+		old.setMedium(new ArrayList<>(cached.getMedium()));
+		old.setGrade(new ArrayList<>(cached.getGrade()));
+		old.setUnits(new ArrayList<>());
+
+		patchName("ETag fixture, renamed");
+		// a read that raced the write put the old row back after the eviction
+		cacheManager.getCache("courses").put(courseId, old);
+
+		mockMvc.perform(get("/api/courses/" + courseId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.data.name").value("ETag fixture"))
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	private String etagOf(String path) throws Exception {
+		String etag = mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+		return etag;
+	}
+
+	private void patchName(String name) throws Exception {
+		mockMvc.perform(patch("/api/courses/" + courseId).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"" + name + "\"}"))
+				.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /api/courses?fields=...: only the selected keys, in the requested order. unitCount is not
+// covered by the list's ETag (unit writes do not move the coursesList key), so it turns the ETag off.
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseControllerFieldsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void selectedFieldsOnlyWithETag() throws Exception {
+		mockMvc.perform(get("/api/courses").param("fields", "name,id").param("size", "1"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andExpect(jsonPath("$.result.data[0].keys()", contains("name", "id")));
+	}
+
+	@Test
+	void unitCountHasNoETag() throws Exception {
+		mockMvc.perform(get("/api/courses").param("fields", "id,unitCount").param("size", "1"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist("ETag"))
+				.andExpect(jsonPath("$.result.data[0].keys()", contains("id", "unitCount")))
+				.andExpect(jsonPath("$.result.data[0].unitCount").isNumber());
+	}
+
+	@Test
+	void unknownFieldIsABadRequest() throws Exception {
+		mockMvc.perform(get("/api/courses").param("fields", "id,units"))
+				.andExpect(status().isBadRequest());
+	}
+}
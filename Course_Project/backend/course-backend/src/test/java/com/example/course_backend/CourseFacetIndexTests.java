@@ -0,0 +1,146 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Filter and count logic of the bitsets, over facet rows from a mocked repository.
+class CourseFacetIndexTests {
+
+	private final CourseRepository courseRepository = mock(CourseRepository.class);
+
+	private final CourseFacetIndex index = new CourseFacetIndex(courseRepository, mock(TwoLevelCacheManager.class));
+
+	@BeforeEach
+	void build() {
+		when(courseRepository.findAllFacets()).thenReturn(List.of(
+				row(1, Board.CBSE, List.of(Medium.ENGLISH), List.of(Subject.MATHEMATICS), List.of(Grade.CLASS_5)),
+				row(2, Board.CBSE, List.of(Medium.HINDI), List.of(Subject.SCIENCE), List.of(Grade.CLASS_5, Grade.CLASS_6)),
+				row(3, Board.ICSE, List.of(Medium.ENGLISH, Medium.HINDI), List.of(Subject.MATHEMATICS), List.of(Grade.CLASS_6)),
+				row(4, Board.STATE, List.of(Medium.KANNADA), List.of(Subject.SOCIAL), List.of(Grade.CLASS_7))));
+		index.rebuild();
+	}
+
+	@Test
+	void blankFiltersMatchEverything() {
+		assertThat(ids(index.match(null, " ", "", null))).containsExactly(1, 2, 3, 4);
+	}
+
+	@Test
+	void valuesAreOredWithinAFacetAndAndedAcross() {
+		assertThat(ids(index.match("cbse,icse", null, null, null))).containsExactly(1, 2, 3);
+		assertThat(ids(index.match("CBSE,ICSE", "english", null, null))).containsExactly(1, 3);
+		assertThat(ids(index.match(null, null, "MATHEMATICS", "CLASS_6"))).containsExactly(3);
+	}
+
+	@Test
+	void unknownValuesMatchNothing() {
+		assertThat(ids(index.match("NIOS", null, null, null))).isEmpty();
+		// a known value next to an unknown one still counts
+		assertThat(ids(index.match("NIOS,STATE", null, null, null))).containsExactly(4);
+	}
+
+	@Test
+	void matchReturnsACopy() {
+		index.match(null, null, null, null).clear();
+
+		assertThat(ids(index.match(null, null, null, null))).containsExactly(1, 2, 3, 4);
+	}
+
+	@Test
+	void eachFacetIsCountedWithoutItsOwnFilter() {
+		Map<String, Map<String, Integer>> counts = index.counts("CBSE", "ENGLISH", null, null, null);
+
+		// boards ignore board=CBSE: the ENGLISH courses are 1 (CBSE) and 3 (ICSE)
+		assertThat(counts.get("boards")).containsEntry("CBSE", 1).containsEntry("ICSE", 1).containsEntry("STATE", 0);
+		// mediums ignore medium=ENGLISH: the CBSE courses are 1 and 2
+		assertThat(counts.get("mediums")).containsEntry("ENGLISH", 1).containsEntry("HINDI", 1)
+				.containsEntry("KANNADA", 0);
+		// the others get both filters, leaving course 1
+		assertThat(counts.get("subjects")).containsEntry("MATHEMATICS", 1).containsEntry("SCIENCE", 0);
+		assertThat(counts.get("grades")).containsEntry("CLASS_5", 1).containsEntry("CLASS_6", 0);
+	}
+
+	@Test
+	void withinNarrowsEveryFacet() {
+		BitSet within = new BitSet();
+		within.set(2);
+		within.set(4);
+
+		Map<String, Map<String, Integer>> counts = index.counts(null, null, null, null, within);
+
+		assertThat(counts.get("boards")).containsEntry("CBSE", 1).containsEntry("ICSE", 0).containsEntry("STATE", 1);
+		assertThat(counts.get("grades")).containsEntry("CLASS_5", 1).containsEntry("CLASS_6", 1)
+				.containsEntry("CLASS_7", 1);
+	}
+
+	@Test
+	void indexReplacesACoursesBitsAndRemoveClearsThem() {
+		index.index(course(1, Board.STATE, Medium.KANNADA, Subject.SOCIAL, Grade.CLASS_7));
+		index.remove(4);
+
+		assertThat(ids(index.match("CBSE", null, null, null))).containsExactly(2);
+		assertThat(ids(index.match("STATE", null, null, null))).containsExactly(1);
+		assertThat(ids(index.match(null, null, null, null))).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void writesDuringARebuildSurviveTheSwap() {
+		// the table as read by the rebuild still has the old course 2 and the deleted course 4
+		when(courseRepository.findAllFacets()).thenAnswer(call -> {
+			index.index(course(2, Board.ICSE, Medium.ENGLISH, Subject.SCIENCE, Grade.CLASS_8));
+			index.remove(4);
+			return List.of(
+					row(1, Board.CBSE, List.of(Medium.ENGLISH), List.of(Subject.MATHEMATICS), List.of(Grade.CLASS_5)),
+					row(2, Board.CBSE, List.of(Medium.HINDI), List.of(Subject.SCIENCE), List.of(Grade.CLASS_5)),
+					row(4, Board.STATE, List.of(Medium.KANNADA), List.of(Subject.SOCIAL), List.of(Grade.CLASS_7)));
+		});
+
+		index.rebuild();
+
+		assertThat(ids(index.match(null, null, null, null))).containsExactly(1, 2);
+		assertThat(ids(index.match("ICSE", null, null, "CLASS_8"))).containsExactly(2);
+		assertThat(ids(index.match(null, "HINDI", null, null))).isEmpty();
+	}
+
+	@Test
+	void ensureReadyOnlyBuildsAnIndexThatIsNotReady() {
+		CourseFacetIndex fresh = new CourseFacetIndex(courseRepository, mock(TwoLevelCacheManager.class));
+
+		fresh.ensureReady();
+		fresh.ensureReady();
+
+		assertThat(fresh.isReady()).isTrue();
+		assertThat(ids(fresh.match(null, null, null, null))).containsExactly(1, 2, 3, 4);
+		// once by build() above, once by the first ensureReady()
+		verify(courseRepository, times(2)).findAllFacets();
+	}
+
+	private static Object[] row(int id, Board board, List<Medium> medium, List<Subject> subject, List<Grade> grade) {
+		return new Object[]{id, board, medium, subject, grade};
+	}
+
+	private static Course course(int id, Board board, Medium medium, Subject subject, Grade grade) {
+		Course course = new Course();
+		course.setId(id);
+		course.setBoard(board);
+		course.setMedium(new ArrayList<>(List.of(medium)));
+		course.setSubject(new ArrayList<>(List.of(subject)));
+		course.setGrade(new ArrayList<>(List.of(grade)));
+		return course;
+	}
+
+	private static List<Integer> ids(BitSet bits) {
+		return bits.stream().boxed().toList();
+	}
+}
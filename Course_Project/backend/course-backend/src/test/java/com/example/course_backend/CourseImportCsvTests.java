@@ -0,0 +1,31 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Splitting CSV import lines (CourseImportService.splitCsv); no Postgres or Redis needed.
+class CourseImportCsvTests {
+
+	@Test
+	void splitsPlainFields() {
+		assertThat(CourseImportService.splitCsv("a,b,,c")).containsExactly("a", "b", "", "c");
+		assertThat(CourseImportService.splitCsv("")).containsExactly("");
+	}
+
+	@Test
+	void quotedFieldsKeepCommasAndEscapedQuotes() {
+		assertThat(CourseImportService.splitCsv("\"Numbers, counting\",\"Say \"\"hi\"\"\",\"\""))
+				.containsExactly("Numbers, counting", "Say \"hi\"", "");
+		// quotes may start mid-field and are only delimiters
+		assertThat(CourseImportService.splitCsv("x\"y,z\"w,end")).containsExactly("xy,zw", "end");
+	}
+
+	@Test
+	void unterminatedQuoteIsRejected() {
+		assertThatThrownBy(() -> CourseImportService.splitCsv("\"open,field"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Unterminated quoted field");
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+
+// Not @Transactional: the import commits each chunk in its own transaction, so the fixture
+// course is deleted afterwards instead of rolled back.
+@SpringBootTest
+class CourseImportServiceTests {
+
+	@Autowired
+	private CourseImportService importService;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private UnitRepository unitRepository;
+
+	@MockitoSpyBean
+	private CourseCacheKeys cacheKeys;
+
+	private Integer courseId;
+
+	@BeforeEach
+	void createCourse() {
+		Course course = new Course();
+		course.setName("Import fixture");
+		course.setDescription("Unit import fixture");
+		course.setBoard(Board.STATE);
+		course.setSubject(new ArrayList<>(List.of(Subject.SCIENCE)));
+		course.setMedium(new ArrayList<>(List.of(Medium.KANNADA)));
+		course.setGrade(new ArrayList<>(List.of(Grade.CLASS_8)));
+		courseId = courseRepository.save(course).getId();
+	}
+
+	@AfterEach
+	void deleteCourse() {
+		unitRepository.deleteAll(unitRepository.findByCourseId(courseId));
+		courseRepository.deleteById(courseId);
+	}
+
+	@Test
+	void badRowsAreReportedByLineAndTheRestIsImported() {
+		String csv = String.join("\n",
+				"title,content",
+				"Intro,\"Numbers, counting\"",
+				"\"Say \"\"hi\"\"\",Greetings",
+				// passes validation, but is too long for the column: fails the chunk's insert
+				"x".repeat(300) + ",Too long",
+				"\"Unterminated,oops",
+				"",
+				"Only one column",
+				"Fine,Last");
+
+		CourseImportService.ImportResult result = importService.importUnits(courseId,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CourseImportService.Format.CSV);
+
+		assertThat(result.imported()).isEqualTo(3);
+		assertThat(result.failed()).isEqualTo(3);
+		// parse errors are reported as lines are read, the insert failure when its chunk is written
+		assertThat(result.errors()).extracting(CourseImportService.RowError::line).containsExactly(5L, 7L, 4L);
+		assertThat(result.errors().get(0).error()).isEqualTo("Unterminated quoted field");
+		assertThat(result.errors().get(1).error()).isEqualTo("Expected 2 columns, found 1");
+		assertThat(result.errors().get(2).error()).startsWith("Could not be saved: ");
+
+		// the rows of the failed chunk that were fine are saved on the row-by-row retry
+		List<Unit> units = unitRepository.findByCourseId(courseId);
+		assertThat(units).extracting(Unit::getTitle).containsExactlyInAnyOrder("Intro", "Say \"hi\"", "Fine");
+		assertThat(units).extracting(Unit::getContent).contains("Numbers, counting");
+	}
+
+	@Test
+	void nullRowsAndUnitsAreRejectedRowByRow() {
+		String ndjson = String.join("\n",
+				"null",
+				"{\"title\": \"Kept\", \"content\": \"After a null row\"}");
+
+		CourseImportService.ImportResult units = importService.importUnits(courseId,
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), CourseImportService.Format.NDJSON);
+
+		assertThat(units.imported()).isEqualTo(1);
+		assertThat(units.errors()).extracting(CourseImportService.RowError::error)
+				.containsExactly("Row must be an object");
+
+		String course = "{\"name\": \"Null unit\", \"description\": \"Import fixture\", \"board\": \"STATE\", " +
+				"\"subject\": [\"SCIENCE\"], \"medium\": [\"KANNADA\"], \"grade\": [\"CLASS_8\"], " +
+				"\"units\": [{\"title\": \"Fine\", \"content\": \"Fine\"}, null]}";
+
+		CourseImportService.ImportResult courses = importService.importCourses(
+				new ByteArrayInputStream(course.getBytes(StandardCharsets.UTF_8)), CourseImportService.Format.NDJSON);
+
+		assertThat(courses.imported()).isZero();
+		assertThat(courses.errors()).extracting(CourseImportService.RowError::error)
+				.containsExactly("units[1]: Unit must be an object");
+	}
+
+	@Test
+	void cacheFailureAfterCommitDoesNotSaveTheChunkTwice() {
+		doThrow(new RedisConnectionFailureException("Redis is down")).when(cacheKeys).invalidateUnits(anyCollection());
+		String csv = String.join("\n", "title,content", "One,First", "Two,Second");
+
+		CourseImportService.ImportResult result = importService.importUnits(courseId,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CourseImportService.Format.CSV);
+
+		assertThat(result.imported()).isEqualTo(2);
+		assertThat(result.failed()).isZero();
+		assertThat(unitRepository.findByCourseId(courseId)).extracting(Unit::getTitle)
+				.containsExactlyInAnyOrder("One", "Two");
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.course_backend;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Loading a page of courses must not fan out into one select per course and collection.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CourseQueryCountTests {
+
+	private static final int COURSES = 30;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final List<Integer> ids = new ArrayList<>();
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void createCourses() {
+		for (int i = 0; i < COURSES; i++) {
+			Course course = new Course();
+			course.setName("Query count " + i);
+			course.setDescription("Statement count fixture");
+			course.setBoard(Board.STATE);
+			course.setSubject(new ArrayList<>(List.of(Subject.SCIENCE, Subject.SOCIAL)));
+			course.setMedium(new ArrayList<>(List.of(Medium.ENGLISH, Medium.KANNADA)));
+			course.setGrade(new ArrayList<>(List.of(Grade.CLASS_5, Grade.CLASS_6, Grade.CLASS_7)));
+			ids.add(courseRepository.save(course).getId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findAllByIdIsOneStatement() {
+		List<Course> courses = courseRepository.findAllById(ids);
+
+		assertThat(courses).hasSize(COURSES);
+		assertThat(courses).allSatisfy(c -> assertThat(c.getGrade()).hasSize(3));
+		// facet lists are columns of the course row, nothing else to fetch
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void filteredPageIsCountPlusOneStatement() {
+		List<Course> page = courseRepository.findAll(
+				// the id filter keeps the page to this test's rows on a seeded database
+				CourseSpecifications.filter("STATE", null, "SOCIAL", null)
+						.and((root, query, cb) -> root.get("id").in(ids)),
+				PageRequest.of(0, 20, CourseSpecifications.nameOrder("asc"))).getContent();
+
+		assertThat(page).hasSize(20);
+		assertThat(page).allSatisfy(c -> assertThat(c.getMedium()).hasSize(2));
+		// count and page
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Walking a list with ?after= cursors must give the same order as nameOrder: names ignoring
+// case, ties broken by id, with no row skipped or repeated at page boundaries. With a search
+// term it must visit the same ranked ids as the offset pages.
+@SpringBootTest
+@Transactional
+class CourseSeekPaginationTests {
+
+	// repeated and case-differing names, so most page boundaries fall inside a tie
+	private static final List<String> NAMES = List.of(
+			"seek b", "Seek A", "SEEK A", "seek a", "Seek B", "seek c", "Seek A", "SEEK B");
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private SearchService searchService;
+
+	private final Map<Integer, String> names = new HashMap<>();
+
+	private Specification<Course> ours;
+
+	@BeforeEach
+	void createCourses() {
+		for (String name : NAMES) {
+			Course course = new Course();
+			course.setName(name);
+			course.setDescription("Seek pagination fixture");
+			course.setBoard(Board.CBSE);
+			course.setSubject(new ArrayList<>(List.of(Subject.SCIENCE)));
+			course.setMedium(new ArrayList<>(List.of(Medium.ENGLISH)));
+			course.setGrade(new ArrayList<>(List.of(Grade.CLASS_5)));
+			Course saved = courseRepository.save(course);
+			names.put(saved.getId(), name);
+		}
+		courseRepository.flush();
+		// only this test's rows on a seeded database
+		List<Integer> ids = List.copyOf(names.keySet());
+		ours = (root, query, cb) -> root.get("id").in(ids);
+	}
+
+	@Test
+	void ascendingIgnoresCaseThenId() {
+		List<Integer> expected = names.keySet().stream()
+				.sorted(Comparator.comparing((Integer id) -> names.get(id).toLowerCase()).thenComparing(id -> id))
+				.toList();
+
+		assertThat(walk("asc", 3)).isEqualTo(expected);
+		assertThat(walk("asc", 1)).isEqualTo(expected);
+	}
+
+	@Test
+	void descendingIsTheExactReverse() {
+		List<Integer> ascending = walk("asc", 2);
+		List<Integer> descending = new ArrayList<>(walk("desc", 2));
+		Collections.reverse(descending);
+
+		assertThat(descending).isEqualTo(ascending);
+	}
+
+	@Test
+	void cursorNameCaseDoesNotMatter() {
+		List<Integer> all = walk("asc", NAMES.size());
+		int first = all.get(0);
+
+		// the same position whether the cursor carries "seek a" or "SEEK A"
+		List<Integer> lower = page("asc", new PageCursor(first, names.get(first).toLowerCase()), NAMES.size());
+		List<Integer> upper = page("asc", new PageCursor(first, names.get(first).toUpperCase()), NAMES.size());
+
+		assertThat(lower).isEqualTo(all.subList(1, all.size()));
+		assertThat(upper).isEqualTo(lower);
+	}
+
+	@Test
+	void searchGivesTheSameIdsInBothPagingModes() {
+		String search = "seek pagination fixture";
+		List<Integer> offset = Arrays.stream(searchService.searchCourseIds(
+				null, null, null, null, search, PageRequest.of(0, 100)).ids()).boxed().toList();
+
+		List<Integer> seek = new ArrayList<>();
+		String after = "";
+		while (after != null) {
+			CourseService.SeekPage<CourseSummary> page = courseService.filterSearchSortSummariesAfter(
+					null, null, null, null, search, "asc", after, 3, false);
+			page.content().forEach(s -> seek.add(s.id()));
+			after = page.nextCursor();
+		}
+
+		assertThat(offset).containsAll(names.keySet());
+		assertThat(seek).isEqualTo(offset);
+	}
+
+	@Test
+	void searchWithoutTextMatchesNothingInBothPagingModes() {
+		assertThat(searchService.searchCourseIds(null, null, null, null, "!!!", PageRequest.of(0, 100)).ids())
+				.isEmpty();
+		assertThat(courseService.filterSearchSortSummariesAfter(
+				null, null, null, null, "!!!", "asc", "", 3, false).content()).isEmpty();
+	}
+
+	// Follows cursors from the first page to the end, as a client would
+	private List<Integer> walk(String direction, int size) {
+		List<Integer> seen = new ArrayList<>();
+		PageCursor cursor = null;
+		while (true) {
+			List<Integer> page = page(direction, cursor, size);
+			seen.addAll(page);
+			if (page.size() < size) return seen;
+			int last = page.get(page.size() - 1);
+			// round trip through the wire format, as ?after= does
+			cursor = PageCursor.decode(new PageCursor(last, names.get(last)).encode());
+		}
+	}
+
+	private List<Integer> page(String direction, PageCursor cursor, int size) {
+		Specification<Course> spec = ours.and(CourseSpecifications.seekAfter(cursor, direction));
+		return courseRepository.findIds(spec, CourseSpecifications.nameOrder(direction), 0, size);
+	}
+}
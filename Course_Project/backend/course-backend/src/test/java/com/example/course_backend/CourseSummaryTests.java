@@ -0,0 +1,54 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseSummaryTests {
+
+	@Test
+	void keepsTheRequestedOrderAndDropsDuplicates() {
+		assertThat(CourseSummary.parseFields(" name, id ,name")).containsExactly("name", "id");
+	}
+
+	@Test
+	void summaryIsEverythingButTheDescription() {
+		assertThat(CourseSummary.parseFields("summary"))
+				.containsExactly("id", "name", "board", "subject", "medium", "grade", "unitCount");
+		assertThat(CourseSummary.parseFields("description,summary")).hasSize(CourseSummary.FIELDS.size());
+	}
+
+	@Test
+	void unknownFieldIsRejected() {
+		assertThatThrownBy(() -> CourseSummary.parseFields("name,units"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageStartingWith("Unknown field: units");
+		// names are case-sensitive, as in the JSON
+		assertThatThrownBy(() -> CourseSummary.parseFields("unitcount"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void emptyFieldsAreRejected() {
+		assertThatThrownBy(() -> CourseSummary.parseFields(""))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("fields must name at least one field");
+		assertThatThrownBy(() -> CourseSummary.parseFields(" , ,"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void unitCountIsSelectable() {
+		Set<String> fields = CourseSummary.parseFields("unitCount,id");
+		CourseSummary summary = new CourseSummary(3, "Algebra", Board.CBSE, List.of(Subject.MATHEMATICS),
+				List.of(Medium.ENGLISH), List.of(Grade.CLASS_8), 12L, null);
+
+		assertThat(summary.select(fields)).containsExactly(
+				Map.entry("unitCount", 12L), Map.entry("id", 3));
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.course_backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTests {
+
+	@Test
+	void courseCursorRoundTrips() {
+		// the name may contain the separator; only the first '|' splits
+		PageCursor cursor = new PageCursor(42, "Maths | Part 2");
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void unitCursorRoundTrips() {
+		PageCursor cursor = new PageCursor(7, null);
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void searchCursorRoundTripsTheExactRank() {
+		PageCursor cursor = PageCursor.ofRank(42, 0.0607927f);
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void searchCursorWithoutAFiniteRankIsRejected() {
+		assertThatThrownBy(() -> PageCursor.decode(encode("42~NaN")))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> PageCursor.decode(encode("42~high")))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void blankCursorStartsFromTheFirstRow() {
+		assertThat(PageCursor.decode(null)).isNull();
+		assertThat(PageCursor.decode(" ")).isNull();
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThatThrownBy(() -> PageCursor.decode("not base64!"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void tamperedCursorIsRejected() {
+		assertThatThrownBy(() -> PageCursor.decode(encode("abc|Maths")))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> PageCursor.decode(encode("|Maths")))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> PageCursor.decode(encode("99999999999")))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void unitCursorCannotSeekCourses() {
+		PageCursor unitCursor = PageCursor.decode(new PageCursor(7, null).encode());
+
+		assertThatThrownBy(() -> CourseSpecifications.seekAfter(unitCursor, "asc"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.course_backend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Synthetic catalog for the benchmarks: ids 1..count, seeded so every run sees the same data.
+// Facet values are spread roughly like the seed data (1-2 subjects, 1-2 mediums, 1-3 grades).
+final class BenchmarkData {
+
+    private static final String[] TOPICS = {"Basics", "Fundamentals", "Essentials", "Starter", "Advanced",
+            "Revision", "Practice", "Workbook"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Course> courses(int count, long seed) {
+        Random random = new Random(seed);
+        List<Course> courses = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) courses.add(course(random, id));
+        return courses;
+    }
+
+    static Course course(Random random, int id) {
+        List<Subject> subjects = distinct(random, Subject.values(), 1 + random.nextInt(2));
+        Subject subject = subjects.get(0);
+        Course course = new Course();
+        course.setId(id);
+        course.setName(capitalize(subject) + " " + pick(random, TOPICS) + " " + random.nextInt(10_000));
+        course.setDescription(("A course covering the core " + subject.name().toLowerCase()
+                + " topics of the syllabus, with worked examples and exercises for every chapter. ").repeat(2));
+        course.setBoard(pick(random, Board.values()));
+        course.setSubject(subjects);
+        course.setMedium(distinct(random, Medium.values(), 1 + random.nextInt(2)));
+        course.setGrade(distinct(random, Grade.values(), 1 + random.nextInt(3)));
+        course.setUnits(null);
+        return course;
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> List<T> distinct(Random random, T[] values, int n) {
+        List<T> picked = new ArrayList<>(n);
+        while (picked.size() < n) {
+            T value = pick(random, values);
+            if (!picked.contains(value)) picked.add(value);
+        }
+        return picked;
+    }
+
+    private static String capitalize(Enum<?> value) {
+        String name = value.name().toLowerCase();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.course_backend;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Round trips through the JPA attribute converters, run once per list column per row read
+// or written: StringListConverter (comma separated text) and EnumListConverter (text[]).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private final StringListConverter stringList = new StringListConverter();
+    private final EnumListConverter.Grades grades = new EnumListConverter.Grades();
+
+    private final List<String> strings = List.of("CLASS_1", "CLASS_2", "CLASS_3", "CLASS_4", "CLASS_5");
+    private final List<Grade> enums = List.of(Grade.CLASS_1, Grade.CLASS_2, Grade.CLASS_3, Grade.CLASS_4, Grade.CLASS_5);
+    private final String column = String.join(",", strings);
+    private final String[] arrayColumn = strings.toArray(String[]::new);
+
+    @Benchmark
+    public List<String> stringListRoundTrip() {
+        return stringList.convertToEntityAttribute(stringList.convertToDatabaseColumn(strings));
+    }
+
+    @Benchmark
+    public List<String> stringListRead() {
+        return stringList.convertToEntityAttribute(column);
+    }
+
+    @Benchmark
+    public List<Grade> enumListRoundTrip() {
+        return grades.convertToEntityAttribute(grades.convertToDatabaseColumn(enums));
+    }
+
+    @Benchmark
+    public List<Grade> enumListRead() {
+        return grades.convertToEntityAttribute(arrayColumn);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.course_backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Entry point of benchmarks.jar: JMH's own Main, but results go to target/jmh-result.json
+// unless a result format is given. Diff two result files between releases, e.g. with
+// https://jmh.morethan.io. Usual JMH options apply: `java -jar target/benchmarks.jar Filter -p courses=10000`.
+public class CourseBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.addAll(0, List.of("-rf", "json", "-rff", "target/jmh-result.json"));
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+}
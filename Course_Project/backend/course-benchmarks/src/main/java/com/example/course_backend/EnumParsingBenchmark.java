@@ -0,0 +1,54 @@
+package com.example.course_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Enum handling on POST /api/courses: Jackson binding the request body (board and the
+// subject/medium/grade lists) and the normalisation in CourseService.validateNewCourse.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnumParsingBenchmark {
+
+    private static final String BODY = """
+            {"name":"Mathematics Basics","description":"Covers numbers, addition and subtraction.",
+             "board":"CBSE","subject":["MATHEMATICS","SCIENCE"],"medium":["ENGLISH","KANNADA"],
+             "grade":["CLASS_1","CLASS_2","CLASS_3"]}""";
+
+    private ObjectMapper mapper;
+    private CourseService courseService;
+    private Course parsed;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new RedisConfig().redisObjectMapper();
+        // validateNewCourse uses none of the collaborators
+        courseService = new CourseService(null, null, null, null, null, null, null, null);
+        parsed = mapper.readValue(BODY, Course.class);
+    }
+
+    @Benchmark
+    public Course bindRequestBody() throws IOException {
+        return mapper.readValue(BODY, Course.class);
+    }
+
+    @Benchmark
+    public Course validateNewCourse() {
+        Course course = new Course();
+        course.setName(parsed.getName());
+        course.setDescription(parsed.getDescription());
+        course.setBoard(parsed.getBoard());
+        course.setSubject(List.copyOf(parsed.getSubject()));
+        course.setMedium(List.copyOf(parsed.getMedium()));
+        course.setGrade(List.copyOf(parsed.getGrade()));
+        courseService.validateNewCourse(course);
+        return course;
+    }
+}
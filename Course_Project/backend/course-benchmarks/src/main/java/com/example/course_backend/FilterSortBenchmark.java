@@ -0,0 +1,80 @@
+package com.example.course_backend;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Filtering and name ordering of the course list at 1k/10k/100k courses: a plain stream
+// over all courses (what a findAll()-and-filter list costs) against CourseFacetIndex, which
+// serves the total and facet counts of GET /api/courses/facets. GET /api/courses counts its
+// totals in the database (CourseListService), so none of this is that endpoint's cost.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterSortBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    // As CourseSpecifications.nameOrder: name ignoring case, then id
+    private static final Comparator<Course> NAME_ORDER =
+            Comparator.comparing(Course::getName, String.CASE_INSENSITIVE_ORDER).thenComparing(Course::getId);
+
+    @Param({"1000", "10000", "100000"})
+    public int courses;
+
+    private List<Course> catalog;
+    private Course[] byId;
+    private CourseFacetIndex index;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkData.courses(courses, 42);
+        byId = new Course[courses + 1];
+        catalog.forEach(c -> byId[c.getId()] = c);
+        // the repository is only used by rebuild() and messages from other nodes; without Redis
+        // the write broadcast goes nowhere
+        TwoLevelCacheManager noBroadcast = new TwoLevelCacheManager(null, null, 0, Duration.ZERO) {
+            @Override
+            void publishInvalidation(String cacheName, String key) {
+            }
+        };
+        index = new CourseFacetIndex(null, noBroadcast);
+        index.indexAll(catalog);
+    }
+
+    // board=CBSE&subject=SCIENCE&grade=CLASS_5,CLASS_6, first page by name
+    @Benchmark
+    public List<Course> streamFilterSortPage() {
+        return catalog.stream()
+                .filter(c -> c.getBoard() == Board.CBSE)
+                .filter(c -> c.getSubject().contains(Subject.SCIENCE))
+                .filter(c -> c.getGrade().contains(Grade.CLASS_5) || c.getGrade().contains(Grade.CLASS_6))
+                .sorted(NAME_ORDER)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BitSet facetIndexMatch() {
+        return index.match("CBSE", null, "SCIENCE", "CLASS_5,CLASS_6");
+    }
+
+    @Benchmark
+    public List<Course> facetIndexMatchSortPage() {
+        BitSet matching = index.match("CBSE", null, "SCIENCE", "CLASS_5,CLASS_6");
+        List<Course> matched = new ArrayList<>(matching.cardinality());
+        for (int id = matching.nextSetBit(0); id >= 0; id = matching.nextSetBit(id + 1)) matched.add(byId[id]);
+        matched.sort(NAME_ORDER);
+        return matched.subList(0, Math.min(PAGE_SIZE, matched.size()));
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Integer>> facetCounts() {
+        return index.counts("CBSE", null, "SCIENCE", null, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.course_backend;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Log calls from request threads, as in the default profile (appender writes on the calling
+// thread) and the prod profile (AsyncAppender, see logback-spring.xml), with the message
+// built from two fields or from the entity's toString. Both write Spring Boot's console
+// pattern to a temp file. The async queue drops events when it is full, which is what keeps
+// the callers' throughput up when the disk (or console) cannot keep up.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Course course;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("logging-benchmark", ".log").toFile();
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getPath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> root = fileAppender;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(fileAppender);
+            async.start();
+            root = async;
+        }
+
+        logger = context.getLogger(CourseController.class);
+        logger.setAdditive(false);
+        logger.addAppender(root);
+        course = BenchmarkData.courses(1, 42).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        file.delete();
+    }
+
+    // what the services log after a write
+    @Benchmark
+    public void parameterized() {
+        logger.info("Created course: {} (id={})", course.getName(), course.getId());
+    }
+
+    // what CourseController.createCourse logged before: the whole course
+    @Benchmark
+    public void entityToString() {
+        logger.info("Create course request: {}", course);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.course_backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Response and cache encoding: the MVC ObjectMapper on a course and on a full
+// GET /api/courses envelope (ResponseUtil), and both Redis value formats
+// (see RedisConfig.cacheManager) on a "courses" entry of a course with `units` units.
+// The entry sizes in each format are printed from setUp, ahead of the timings.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    // As RedisConfig's default cache.compression-threshold
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Param({"0", "20"})
+    public int units;
+
+    private ObjectMapper mapper;
+    private Course course;
+    private List<Course> page;
+    private RedisSerializer<Object> jsonCache;
+    private RedisSerializer<Object> binaryCache;
+    private CacheEntry cacheEntry;
+    private byte[] jsonCacheBytes;
+    private byte[] binaryCacheBytes;
+
+    @Setup
+    public void setUp() {
+        mapper = new RedisConfig().redisObjectMapper();
+        page = BenchmarkData.courses(20, 42);
+        course = page.get(0);
+        jsonCache = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(new RedisConfig().redisObjectMapper())
+                .defaultTyping(true)
+                .build();
+        binaryCache = new BinaryCacheSerializer(jsonCache, COMPRESSION_THRESHOLD);
+        cacheEntry = new CacheEntry(withUnits(BenchmarkData.courses(1, 42).get(0), units), Long.MAX_VALUE);
+        jsonCacheBytes = jsonCache.serialize(cacheEntry);
+        binaryCacheBytes = binaryCache.serialize(cacheEntry);
+
+        // bytes per "courses" entry: JSON, binary without LZ4, binary always LZ4, binary as configured
+        int plain = new BinaryCacheSerializer(jsonCache, 0).serialize(cacheEntry).length;
+        int lz4 = new BinaryCacheSerializer(jsonCache, 1).serialize(cacheEntry).length;
+        System.out.printf("%nCache entry bytes (units=%d): json=%d binary=%d binary+lz4=%d configured=%d (%s)%n",
+                units, jsonCacheBytes.length, plain, lz4, binaryCacheBytes.length,
+                binaryCacheBytes[0] == BinaryCacheSerializer.FORMAT_LZ4 ? "lz4" : "plain");
+    }
+
+    private static Course withUnits(Course course, int count) {
+        List<Unit> units = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Unit unit = new Unit();
+            unit.setId(course.getId() * 100 + i);
+            unit.setVersion(0);
+            unit.setTitle("Chapter " + i);
+            unit.setContent(("Worked examples and exercises for chapter " + i + " of " + course.getName() + ". ")
+                    .repeat(3));
+            unit.setCourse(course);
+            units.add(unit);
+        }
+        course.setUnits(units);
+        course.setVersion(0);
+        return course;
+    }
+
+    @Benchmark
+    public byte[] course() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public ApiResponse<Map<String, Object>> envelope() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "Courses fetched successfully");
+        result.put("data", page);
+        result.put("totalPages", 50);
+        result.put("totalElements", 1000L);
+        result.put("currentPage", 0);
+        return ResponseUtil.successWithData("api.course.getAll", result);
+    }
+
+    // envelope() plus writing it, i.e. a whole GET /api/courses response body
+    @Benchmark
+    public byte[] envelopeJson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(envelope());
+    }
+
+    @Benchmark
+    public byte[] jsonCacheWrite() {
+        return jsonCache.serialize(cacheEntry);
+    }
+
+    @Benchmark
+    public Object jsonCacheRead() {
+        return jsonCache.deserialize(jsonCacheBytes);
+    }
+
+    @Benchmark
+    public byte[] binaryCacheWrite() {
+        return binaryCache.serialize(cacheEntry);
+    }
+
+    @Benchmark
+    public Object binaryCacheRead() {
+        return binaryCache.deserialize(binaryCacheBytes);
+    }
+}